@@ -0,0 +1,161 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+import java.util.Arrays;
+
+/**
+ * The original {@code ChessPiece[8][8]} implementation of {@link chess.ChessBoard}, kept as a baseline for the
+ * bitboard representation to be benchmarked against.
+ */
+public class ArrayChessBoard {
+
+    private final ChessPiece[][] board;
+
+
+    public ArrayChessBoard() {
+        board = new ChessPiece[8][8];
+    }
+
+
+    /**
+     * Copy constructor. Constructs a board with pieces the same as provided board
+     *
+     * @param copy ArrayChessBoard to copy the pieces of
+     */
+    public ArrayChessBoard(ArrayChessBoard copy) {
+        board = new ChessPiece[8][8];
+        for (int i = 0; i < 8; i++) {
+            board[i] = Arrays.copyOf(copy.board[i], 8);
+        }
+    }
+
+
+    /**
+     * Adds a chess piece to the chessboard
+     *
+     * @param position where to add the piece to
+     * @param piece    the piece to add
+     */
+    public void addPiece(ChessPosition position, ChessPiece piece) {
+        board[position.getRow() - 1][position.getColumn() - 1] = piece;
+    }
+
+
+    /**
+     * Gets a chess piece on the chessboard
+     *
+     * @param position The position to get the piece from
+     * @return Either the piece at the position, or null if no piece is at that
+     * position
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        return board[position.getRow() - 1][position.getColumn() - 1];
+    }
+
+
+    /**
+     * Sets the board to the default starting board
+     * (How the game of chess normally starts)
+     */
+    public void resetBoard() {
+        for (int i = 0; i < 8; i++) {
+            Arrays.fill(board[i], null);
+        }
+
+        addPiece(new ChessPosition(1, 1),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(new ChessPosition(1, 2),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(new ChessPosition(1, 3),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(new ChessPosition(1, 4),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(new ChessPosition(1, 5),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(new ChessPosition(1, 6),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(new ChessPosition(1, 7),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(new ChessPosition(1, 8),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        for (int i = 1; i <= 8; i++) {
+            addPiece(new ChessPosition(2, i),
+                    new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        }
+
+        addPiece(new ChessPosition(8, 1),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(new ChessPosition(8, 2),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(new ChessPosition(8, 3),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(new ChessPosition(8, 4),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(new ChessPosition(8, 5),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(new ChessPosition(8, 6),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(new ChessPosition(8, 7),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(new ChessPosition(8, 8),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        for (int i = 1; i <= 8; i++) {
+            addPiece(new ChessPosition(7, i),
+                    new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        }
+    }
+
+
+    @Override
+    public String toString() { // FEN
+        String[][] toStringArr = new String[8][8];
+        for(int i = 0; i < 8; i++) {
+            for(int j = 0; j < 8; j++) {
+                toStringArr[7 - i][j] = board[i][j] == null ? "1" : board[i][j].toString();
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        for (String[] arr : toStringArr) {
+            for (String s : arr) {
+                out.append(s);
+            }
+            out.append('/');
+        }
+        out.deleteCharAt(out.length() - 1); // delete trailing slash
+
+        int i = 0;
+        while (i < out.length() - 1) {
+            char first = out.charAt(i);
+            char second = out.charAt(i + 1);
+            if (Character.isDigit(first) && Character.isDigit(second)) {
+                int firstInt = Integer.parseInt(String.valueOf(first));
+                int secondInt = Integer.parseInt(String.valueOf(second));
+                int replace = firstInt + secondInt;
+                out.replace(i, i + 2, String.valueOf(replace));
+            } else i++;
+        }
+
+        return out.toString();
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ArrayChessBoard board = (ArrayChessBoard) o;
+        return Arrays.deepEquals(this.board, board.board);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(board);
+    }
+
+}
@@ -0,0 +1,19 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs JMH, writing results to {@code jmh-result.json} unless another result format or file is given, so runs from
+ * different releases can be compared by tools instead of by reading console output
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(List.of(args));
+        if (!jmhArgs.contains("-rf")) jmhArgs.addAll(List.of("-rf", "json"));
+        if (!jmhArgs.contains("-rff")) jmhArgs.addAll(List.of("-rff", "jmh-result.json"));
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+
+}
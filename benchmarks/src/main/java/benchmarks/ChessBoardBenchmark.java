@@ -0,0 +1,103 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bitboard {@link ChessBoard} against the original array-backed board on the operations the game logic
+ * leans on: copying the board for every candidate move, and scanning every square for pieces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChessBoardBenchmark {
+
+    private ChessBoard bitboard;
+
+    private ArrayChessBoard arrayBoard;
+
+
+    @Setup
+    public void setUp() {
+        bitboard = new ChessBoard();
+        arrayBoard = new ArrayChessBoard();
+        bitboard.resetBoard();
+        arrayBoard.resetBoard();
+    }
+
+
+    @Benchmark
+    public ChessBoard copyBitboard() {
+        return new ChessBoard(bitboard);
+    }
+
+
+    @Benchmark
+    public ArrayChessBoard copyArrayBoard() {
+        return new ArrayChessBoard(arrayBoard);
+    }
+
+
+    @Benchmark
+    public void scanBitboard(Blackhole blackhole) {
+        for (int i = 1; i <= 8; i++) {
+            for (int j = 1; j <= 8; j++) {
+                blackhole.consume(bitboard.getPiece(new ChessPosition(i, j)));
+            }
+        }
+    }
+
+
+    @Benchmark
+    public void scanArrayBoard(Blackhole blackhole) {
+        for (int i = 1; i <= 8; i++) {
+            for (int j = 1; j <= 8; j++) {
+                blackhole.consume(arrayBoard.getPiece(new ChessPosition(i, j)));
+            }
+        }
+    }
+
+
+    @Benchmark
+    public int findKingBitboard() {
+        return Long.numberOfTrailingZeros(bitboard.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+    }
+
+
+    @Benchmark
+    public ChessPosition findKingArrayBoard() {
+        for (int i = 1; i <= 8; i++) {
+            for (int j = 1; j <= 8; j++) {
+                ChessPosition pos = new ChessPosition(i, j);
+                ChessPiece piece = arrayBoard.getPiece(pos);
+                if (piece != null && piece.getTeamColor() == ChessGame.TeamColor.BLACK &&
+                        piece.getPieceType() == ChessPiece.PieceType.KING) {
+                    return pos;
+                }
+            }
+        }
+        return null;
+    }
+
+
+    @Benchmark
+    public String toStringBitboard() {
+        return bitboard.toString();
+    }
+
+
+    @Benchmark
+    public String toStringArrayBoard() {
+        return arrayBoard.toString();
+    }
+
+}
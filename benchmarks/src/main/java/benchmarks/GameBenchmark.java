@@ -0,0 +1,107 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link ChessGame} calls the server makes for every move: listing legal moves, making a move, and
+ * checking how the game stands afterward.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameBenchmark {
+
+    @Param({"start", "middlegame", "kiwipete"})
+    public String position;
+
+    private ChessGame game;
+
+    private ChessMove move;
+
+    private int packedMove;
+
+    private final MoveList moves = new MoveList();
+
+    private final MoveUndo undo = new MoveUndo();
+
+
+    @Setup
+    public void setUp() {
+        game = Positions.named(position);
+        game.generateMoves(game.getTeamTurn(), moves);
+        packedMove = moves.get(moves.size() / 2);
+        move = PackedMove.toChessMove(packedMove);
+    }
+
+
+    /**
+     * validMoves for every piece of the team to move, as the client's highlight and the server's move check do.
+     * After the first call the position's moves come from the legal move cache.
+     */
+    @Benchmark
+    public void validMovesCached(Blackhole blackhole) {
+        for (ChessPosition position : game.getBoard().getPiecePositions(game.getTeamTurn())) {
+            blackhole.consume(game.validMoves(position));
+        }
+    }
+
+
+    /**
+     * Same as {@link #validMovesCached(Blackhole)}, but every call starts from an empty cache
+     */
+    @Benchmark
+    public void validMovesUncached(Blackhole blackhole) {
+        LegalMoveCache.shared().clear();
+        for (ChessPosition position : game.getBoard().getPiecePositions(game.getTeamTurn())) {
+            blackhole.consume(game.validMoves(position));
+        }
+    }
+
+
+    @Benchmark
+    public int generateMoves() {
+        moves.clear();
+        game.generateMoves(game.getTeamTurn(), moves);
+        return moves.size();
+    }
+
+
+    /**
+     * The validated makeMove the server calls, on a fresh copy of the game each time
+     */
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        ChessGame copy = new ChessGame(game);
+        copy.makeMove(move);
+        return copy;
+    }
+
+
+    @Benchmark
+    public long makeUnmakeMove() throws InvalidMoveException {
+        game.makeMove(packedMove, undo);
+        long key = game.getBoard().getKey();
+        game.unmakeMove(undo);
+        return key;
+    }
+
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+
+    @Benchmark
+    public ChessGame.GameStatus evaluateStatus() {
+        return game.evaluateStatus();
+    }
+
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import chess.ChessGame;
+import dataAccess.DataAccessException;
+import dataAccess.memory.MemoryGameDAO;
+import model.GameData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MemoryGameDAO} with a given number of games already stored
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameDAOBenchmark {
+
+    @Param({"10", "1000"})
+    public int games;
+
+    private MemoryGameDAO dao;
+
+    private GameData middleGame;
+
+
+    @Setup
+    public void setUp() throws DataAccessException {
+        dao = filledDAO(games);
+        middleGame = dao.findGame(games / 2 + 1);
+    }
+
+
+    @Benchmark
+    public GameData findGame() throws DataAccessException {
+        return dao.findGame(middleGame.gameID());
+    }
+
+
+    @Benchmark
+    public void findAllGames(Blackhole blackhole) throws DataAccessException {
+        for (GameData game : dao.findAllGames()) {
+            blackhole.consume(game);
+        }
+    }
+
+
+    @Benchmark
+    public void updateGame() throws DataAccessException {
+        dao.updateGame(middleGame);
+    }
+
+
+    /**
+     * Inserting looks for the lowest free ID, so this runs against a fresh DAO each time to keep the size fixed
+     */
+    @Benchmark
+    public GameData insertGame(InsertState state) throws DataAccessException {
+        return state.dao.insertGame(new GameData(0, null, null, "benchmark", new ChessGame()));
+    }
+
+
+    @State(Scope.Thread)
+    public static class InsertState {
+
+        MemoryGameDAO dao;
+
+
+        @Setup(Level.Invocation)
+        public void setUp(GameDAOBenchmark benchmark) throws DataAccessException {
+            dao = filledDAO(benchmark.games);
+        }
+
+    }
+
+
+    private static MemoryGameDAO filledDAO(int count) throws DataAccessException {
+        MemoryGameDAO dao = new MemoryGameDAO();
+        for (int i = 0; i < count; i++) {
+            dao.insertGame(new GameData(0, "white" + i, "black" + i, "game " + i, new ChessGame()));
+        }
+        return dao;
+    }
+
+}
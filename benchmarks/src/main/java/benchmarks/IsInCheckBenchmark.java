@@ -0,0 +1,76 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ChessGame#isInCheck(ChessGame.TeamColor, ChessBoard)}, which asks the board whether the king's
+ * square is attacked, against the original implementation that scanned for the king and then generated every enemy
+ * piece's moves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IsInCheckBenchmark {
+
+    @Param({"start", "middlegame"})
+    public String position;
+
+    private ChessBoard board;
+
+
+    @Setup
+    public void setUp() {
+        board = Positions.named(position).getBoard();
+    }
+
+
+    @Benchmark
+    public boolean isSquareAttacked() {
+        return ChessGame.isInCheck(ChessGame.TeamColor.WHITE, board);
+    }
+
+
+    @Benchmark
+    public boolean fullMoveGeneration() {
+        return legacyIsInCheck(ChessGame.TeamColor.WHITE, board);
+    }
+
+
+    private static boolean legacyIsInCheck(ChessGame.TeamColor teamColor, ChessBoard board) {
+        ChessPosition king = null;
+        for (int i = 1; i <= 8; i++) {
+            for (int j = 1; j <= 8; j++) {
+                ChessPosition pos = new ChessPosition(i, j);
+                ChessPiece piece = board.getPiece(pos);
+                if (piece != null && piece.getTeamColor() == teamColor &&
+                        piece.getPieceType() == ChessPiece.PieceType.KING) {
+                    king = pos;
+                    break;
+                }
+            }
+        }
+
+        if (king == null) return false;
+
+        for (int i = 1; i <= 8; i++) {
+            for (int j = 1; j <= 8; j++) {
+                ChessPosition pos = new ChessPosition(i, j);
+                ChessPiece piece = board.getPiece(pos);
+                if (piece != null && piece.getTeamColor() != teamColor) {
+                    for (ChessMove move : piece.pieceMoves(board, pos)) {
+                        if (move.getEndPosition().equals(king)) return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import chess.*;
+
+/**
+ * Representative positions for the benchmarks to run against
+ */
+public class Positions {
+
+    /**
+     * An open middlegame (Italian game, after 8 moves each) with every piece type still on the board
+     */
+    public static final String[] MIDDLEGAME = {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5", "c2c3", "g8f6",
+            "d2d4", "e5d4", "c3d4", "c5b4", "b1c3", "f6e4", "e1g1", "b4c3", "b2c3", "d7d5"};
+
+
+    /**
+     * A busy position with castling, pins, promotions and en passant all in reach
+     */
+    public static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+
+    private Positions() {}
+
+
+    /**
+     * @param name "start", "middlegame" or "kiwipete"
+     * @return a new game in that position
+     */
+    public static ChessGame named(String name) {
+        return switch (name) {
+            case "start" -> new ChessGame();
+            case "middlegame" -> play(MIDDLEGAME);
+            case "kiwipete" -> ChessGame.fromFen(KIWIPETE);
+            default -> throw new IllegalArgumentException("Unknown position " + name);
+        };
+    }
+
+
+    /**
+     * Plays moves from the starting position
+     *
+     * @param moves moves in coordinate notation, such as "e2e4" or "e7e8q"
+     * @return the game after every move has been made
+     */
+    public static ChessGame play(String... moves) {
+        ChessGame game = new ChessGame();
+        try {
+            for (String move : moves) {
+                game.makeMove(parseMove(move));
+            }
+        } catch (InvalidMoveException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return game;
+    }
+
+
+    public static ChessMove parseMove(String move) {
+        ChessPosition start = new ChessPosition(move.charAt(1) - '0', move.charAt(0) - 'a' + 1);
+        ChessPosition end = new ChessPosition(move.charAt(3) - '0', move.charAt(2) - 'a' + 1);
+        ChessPiece.PieceType promotion = (move.length() < 5) ? null : switch (move.charAt(4)) {
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            default -> throw new IllegalArgumentException("Invalid promotion piece in " + move);
+        };
+        return new ChessMove(start, end, promotion);
+    }
+
+}
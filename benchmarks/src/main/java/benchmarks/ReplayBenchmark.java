@@ -0,0 +1,76 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replaying a recorded game, as an import would: one validated makeMove call per move against
+ * {@link ChessGame#applyMoves(List)} and {@link ChessGame#validateLine(List)}. The legal move cache is cleared each
+ * time, since an imported game's positions won't have been seen before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplayBenchmark {
+
+    @Param({"40", "120"})
+    public int plies;
+
+    private final List<ChessMove> line = new ArrayList<>();
+
+
+    @Setup
+    public void setUp() throws InvalidMoveException {
+        Random random = new Random(plies);
+        ChessGame game = new ChessGame();
+        MoveList moves = new MoveList();
+        while (line.size() < plies) {
+            moves.clear();
+            game.generateMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                game = new ChessGame();
+                line.clear();
+                continue;
+            }
+            ChessMove move = PackedMove.toChessMove(moves.get(random.nextInt(moves.size())));
+            game.makeMove(move);
+            line.add(move);
+        }
+    }
+
+
+    @Benchmark
+    public ChessGame makeMoveLoop() throws InvalidMoveException {
+        LegalMoveCache.shared().clear();
+        ChessGame game = new ChessGame();
+        for (ChessMove move : line) {
+            game.makeMove(move);
+        }
+        return game;
+    }
+
+
+    @Benchmark
+    public ChessGame applyMoves() throws InvalidMoveException {
+        LegalMoveCache.shared().clear();
+        ChessGame game = new ChessGame();
+        game.applyMoves(line);
+        return game;
+    }
+
+
+    @Benchmark
+    public int validateLine() {
+        LegalMoveCache.shared().clear();
+        return new ChessGame().validateLine(line);
+    }
+
+}
@@ -0,0 +1,115 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import serialization.Serialization;
+import webSocketMessages.serverMessages.ServerMessage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversions done for every stored game and every WebSocket message: Gson, and {@link GameCodec} for
+ * stored games and clients that take binary LOAD_GAME frames
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"start", "kiwipete"})
+    public String position;
+
+    /**
+     * "reflective" for a plain Gson, as every call site used before the shared one, or "adapters" for
+     * {@link Serialization#getGson()}
+     */
+    @Param({"reflective", "adapters"})
+    public String gsonType;
+
+    private Gson gson;
+
+    private ChessGame game;
+
+    private String gameJson;
+
+    private byte[] gameBinary;
+
+    private ServerMessage loadGame;
+
+    private String loadGameJson;
+
+    private ServerMessage notification;
+
+    private String notificationJson;
+
+
+    @Setup
+    public void setUp() {
+        gson = switch (gsonType) {
+            case "reflective" -> new Gson();
+            case "adapters" -> Serialization.getGson();
+            default -> throw new IllegalArgumentException("Unknown Gson type " + gsonType);
+        };
+        game = Positions.named(position);
+        gameJson = gson.toJson(game);
+        gameBinary = GameCodec.encode(game);
+        loadGame = new ServerMessage(game);
+        loadGameJson = gson.toJson(loadGame);
+        notification = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, "white makes move e2e4 Check.");
+        notificationJson = gson.toJson(notification);
+    }
+
+
+    @Benchmark
+    public String gameToJson() {
+        return gson.toJson(game);
+    }
+
+
+    @Benchmark
+    public ChessGame gameFromJson() {
+        return gson.fromJson(gameJson, ChessGame.class);
+    }
+
+
+    @Benchmark
+    public byte[] gameToBinary() {
+        return GameCodec.encode(game);
+    }
+
+
+    @Benchmark
+    public ChessGame gameFromBinary() {
+        return GameCodec.decode(gameBinary);
+    }
+
+
+    @Benchmark
+    public String loadGameToJson() {
+        return gson.toJson(loadGame);
+    }
+
+
+    @Benchmark
+    public ServerMessage loadGameFromJson() {
+        return gson.fromJson(loadGameJson, ServerMessage.class);
+    }
+
+
+    @Benchmark
+    public String notificationToJson() {
+        return gson.toJson(notification);
+    }
+
+
+    @Benchmark
+    public ServerMessage notificationFromJson() {
+        return gson.fromJson(notificationJson, ServerMessage.class);
+    }
+
+}
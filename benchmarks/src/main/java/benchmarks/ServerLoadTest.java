@@ -0,0 +1,352 @@
+package benchmarks;
+
+import chess.*;
+import com.google.gson.Gson;
+import dataAccess.*;
+import dataAccess.live.LiveDataAccess;
+import dataAccess.memory.MemoryDataAccess;
+import model.AuthData;
+import model.GameData;
+import model.JoinGameRequest;
+import serialization.Serialization;
+import server.Server;
+import spark.Spark;
+import webSocketMessages.serverMessages.ServerMessage;
+import webSocketMessages.userCommands.UserGameCommand;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Load tests the server with its requests and WebSocket commands handled on platform threads and then on virtual
+ * threads, printing the latency percentiles of each.
+ * <p>
+ * The server runs on in-memory data access where every DAO call first sleeps, standing in for a round trip to MySQL,
+ * so requests spend most of their time blocked the way they do in production. Games are kept in memory and written
+ * behind, as {@link Server#run(int)} does. There are two scenarios:
+ * <ul>
+ *     <li>{@code http}: each simulated client lists the games over and over</li>
+ *     <li>{@code websocket}: each simulated client creates a game, joins both colors over HTTP, sends JOIN_PLAYER
+ *     over a WebSocket, and plays random moves with MAKE_MOVE until the game ends or 40 moves have been made, then
+ *     starts another</li>
+ * </ul>
+ * The executor behind WebSocket commands is chosen when it is first used, so each mode runs in its own JVM.
+ * <p>
+ * Arguments, all optional: number of clients (default 1000), seconds per scenario (default 10), milliseconds each DAO
+ * call blocks for (default 10), which modes to run: {@code platform}, {@code virtual} or {@code both} (default), and
+ * which scenarios: {@code http}, {@code websocket} or {@code both} (default).
+ */
+public class ServerLoadTest {
+
+    private static final Gson gson = Serialization.getGson();
+
+    private static final int MAX_PLIES = 40;
+
+
+    public static void main(String[] args) throws Exception {
+        int clients = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+        int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+        int delayMillis = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+        String modes = (args.length > 3) ? args[3] : "both";
+        String scenarios = (args.length > 4) ? args[4] : "both";
+
+        if (modes.equals("both")) {
+            System.out.printf("%d clients, %d s per scenario, %d ms per DAO call%n", clients, seconds, delayMillis);
+            printHeader();
+            for (String mode : List.of("platform", "virtual")) {
+                String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+                Process child = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        ServerLoadTest.class.getName(), String.valueOf(clients), String.valueOf(seconds),
+                        String.valueOf(delayMillis), mode, scenarios, "child").inheritIO().start();
+                if (child.waitFor() != 0) throw new IllegalStateException(mode + " run failed");
+            }
+            System.exit(0);
+        }
+
+        boolean virtualThreads = modes.equals("virtual");
+        //Must be set before the server or the game executor are first used
+        System.setProperty("chess.virtualThreads", Boolean.toString(virtualThreads));
+        if (args.length <= 5) printHeader();
+        if (!scenarios.equals("websocket")) printResults(modes, listGames(clients, seconds, delayMillis), seconds);
+        if (!scenarios.equals("http")) printResults(modes, playGames(clients, seconds, delayMillis), seconds);
+        System.exit(0);
+    }
+
+
+    private static void printHeader() {
+        System.out.printf("%-8s %-9s %10s %10s %10s %10s %10s%n", "mode", "request", "requests/s", "p50 ms",
+                "p99 ms", "max ms", "errors");
+    }
+
+
+    private static Map<String, Latencies> listGames(int clients, int seconds, int delayMillis) throws Exception {
+        MemoryDataAccess memory = new MemoryDataAccess();
+        for (int i = 0; i < clients; i++) {
+            memory.getAuthDAO().insertAuth(new AuthData("token" + i, "user" + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            memory.getGameDAO().insertGame(new GameData(0, "user0", null, "game" + i, new ChessGame()));
+        }
+
+        Server server = new Server();
+        int port = server.run(0, new LiveDataAccess(delayed(memory, delayMillis)));
+        URI uri = URI.create("http://localhost:" + port + "/game");
+
+        Latencies list = new Latencies();
+        runClients(clients, seconds, (http, client, end) -> {
+            HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", "token" + client).GET().build();
+            while (System.nanoTime() < end) {
+                long start = System.nanoTime();
+                list.record(start, send(http, request));
+            }
+        });
+        server.stop();
+        Spark.awaitStop();
+        return Map.of("list", list);
+    }
+
+
+    private static Map<String, Latencies> playGames(int clients, int seconds, int delayMillis) throws Exception {
+        MemoryDataAccess memory = new MemoryDataAccess();
+        for (int i = 0; i < clients; i++) {
+            memory.getAuthDAO().insertAuth(new AuthData("token" + i, "user" + i));
+        }
+
+        Server server = new Server();
+        int port = server.run(0, new LiveDataAccess(delayed(memory, delayMillis)));
+        URI uri = URI.create("http://localhost:" + port + "/game");
+        URI connect = URI.create("ws://localhost:" + port + "/connect");
+
+        Latencies creates = new Latencies();
+        Latencies join = new Latencies();
+        Latencies wsJoin = new Latencies();
+        Latencies move = new Latencies();
+        runClients(clients, seconds, (http, client, end) -> {
+            String token = "token" + client;
+            Random random = new Random(client);
+            BlockingQueue<String> received = new LinkedBlockingQueue<>();
+            WebSocket webSocket = http.newWebSocketBuilder().buildAsync(connect, new WebSocket.Listener() {
+                private final StringBuilder text = new StringBuilder();
+
+                @Override
+                public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+                    text.append(data);
+                    if (last) {
+                        received.add(text.toString());
+                        text.setLength(0);
+                    }
+                    webSocket.request(1);
+                    return null;
+                }
+            }).join();
+
+            while (System.nanoTime() < end) {
+                HttpRequest create = HttpRequest.newBuilder(uri).header("Authorization", token)
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"gameName\":\"load test\"}")).build();
+                long start = System.nanoTime();
+                int gameID;
+                try {
+                    HttpResponse<String> created = http.send(create, HttpResponse.BodyHandlers.ofString());
+                    gameID = gson.fromJson(created.body(), GameData.class).gameID();
+                    creates.record(start, true);
+                } catch (Exception e) {
+                    creates.record(start, false);
+                    continue;
+                }
+
+                for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                    HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", token)
+                            .PUT(HttpRequest.BodyPublishers.ofString(gson.toJson(new JoinGameRequest(color, gameID))))
+                            .build();
+                    start = System.nanoTime();
+                    join.record(start, send(http, request));
+                }
+
+                start = System.nanoTime();
+                webSocket.sendText(gson.toJson(new UserGameCommand(token, gameID, ChessGame.TeamColor.WHITE)), true)
+                        .join();
+                wsJoin.record(start, awaitGame(received));
+
+                ChessGame game = new ChessGame();
+                MoveList moves = new MoveList();
+                for (int ply = 0; ply < MAX_PLIES && System.nanoTime() < end; ply++) {
+                    moves.clear();
+                    game.generateMoves(game.getTeamTurn(), moves);
+                    if (moves.isEmpty()) break;
+                    ChessMove chessMove = PackedMove.toChessMove(moves.get(random.nextInt(moves.size())));
+                    game.makeMove(chessMove);
+
+                    start = System.nanoTime();
+                    webSocket.sendText(gson.toJson(new UserGameCommand(token, gameID, chessMove)), true).join();
+                    move.record(start, awaitGame(received));
+                    if (game.evaluateStatus().isOver()) break;
+                }
+                webSocket.sendText(gson.toJson(new UserGameCommand(UserGameCommand.CommandType.LEAVE, token,
+                        gameID)), true).join();
+            }
+            webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "").join();
+        });
+        server.stop();
+        Spark.awaitStop();
+
+        Map<String, Latencies> results = new LinkedHashMap<>();
+        results.put("create", creates);
+        results.put("join", join);
+        results.put("ws join", wsJoin);
+        results.put("move", move);
+        return results;
+    }
+
+
+    /**
+     * @return whether the request succeeded
+     */
+    private static boolean send(HttpClient http, HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Waits for the LOAD_GAME that answers a command
+     *
+     * @return whether it came, rather than an error
+     */
+    private static boolean awaitGame(BlockingQueue<String> received) throws InterruptedException {
+        while (true) {
+            String message = received.poll(30, TimeUnit.SECONDS);
+            if (message == null) return false;
+            ServerMessage.ServerMessageType type = gson.fromJson(message, ServerMessage.class).getServerMessageType();
+            if (type == ServerMessage.ServerMessageType.LOAD_GAME) return true;
+            if (type == ServerMessage.ServerMessageType.ERROR) return false;
+        }
+    }
+
+
+    private interface Client {
+        void run(HttpClient http, int client, long end) throws Exception;
+    }
+
+
+    private static void runClients(int clients, int seconds, Client body) throws InterruptedException {
+        ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+        //HTTP/1.1 only, rather than offering every new connection an upgrade to HTTP/2 the server never takes
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientThreads).build();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            clientThreads.execute(() -> {
+                try {
+                    body.run(http, client, end);
+                } catch (Exception e) {
+                    System.err.println("Client " + client + " stopped: " + e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clientThreads.shutdown();
+    }
+
+
+    private static void printResults(String mode, Map<String, Latencies> results, int seconds) {
+        results.forEach((request, latencies) -> {
+            long[] all = latencies.sorted();
+            System.out.printf("%-8s %-9s %10.0f %10.1f %10.1f %10.1f %10d%n", mode, request,
+                    all.length / (double) seconds, percentile(all, 0.50), percentile(all, 0.99),
+                    (all.length == 0) ? 0.0 : all[all.length - 1] / 1e6, latencies.errors);
+        });
+    }
+
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1e6;
+    }
+
+
+    /**
+     * Latencies of one kind of request, across every client
+     */
+    private static class Latencies {
+
+        private long[] times = new long[1024];
+
+        private int count;
+
+        private int errors;
+
+
+        synchronized void record(long start, boolean succeeded) {
+            if (count == times.length) times = Arrays.copyOf(times, count * 2);
+            times[count++] = System.nanoTime() - start;
+            if (!succeeded) errors++;
+        }
+
+
+        synchronized long[] sorted() {
+            long[] sorted = Arrays.copyOf(times, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+
+    /**
+     * Wraps in-memory data access so every DAO call blocks for a while first, like a database call would
+     */
+    private static DataAccess delayed(DataAccess backing, int delayMillis) {
+        AuthDAO authDAO = delayed(AuthDAO.class, backing.getAuthDAO(), delayMillis);
+        GameDAO gameDAO = delayed(GameDAO.class, backing.getGameDAO(), delayMillis);
+        UserDAO userDAO = delayed(UserDAO.class, backing.getUserDAO(), delayMillis);
+        return new DataAccess() {
+            @Override
+            public AuthDAO getAuthDAO() {
+                return authDAO;
+            }
+
+            @Override
+            public GameDAO getGameDAO() {
+                return gameDAO;
+            }
+
+            @Override
+            public UserDAO getUserDAO() {
+                return userDAO;
+            }
+        };
+    }
+
+
+    private static <T> T delayed(Class<T> type, T dao, int delayMillis) {
+        //The in-memory DAOs aren't thread safe, so calls go one at a time once the delay is over. A ReentrantLock
+        //rather than synchronized, so the benchmark doesn't pin virtual threads that the server wouldn't.
+        ReentrantLock lock = new ReentrantLock(true);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Thread.sleep(delayMillis);
+            lock.lock();
+            try {
+                return method.invoke(dao, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                lock.unlock();
+            }
+        }));
+    }
+
+}
@@ -22,7 +22,7 @@ public class BoardPrinter {
             for (int j = 1; j <= 8; j++) {
                 int col = (perspective == ChessGame.TeamColor.BLACK) ? 9 - j : j;
 
-                ChessPosition pos = new ChessPosition(row, col);
+                ChessPosition pos = ChessPosition.of(row, col);
 
                 boolean lightSquare = (pos.getRow() + pos.getColumn()) % 2 == 1;
 
@@ -105,7 +105,7 @@ public class GameUserInterface implements UserInterface {
         try {
             int row = Integer.parseInt(parse.substring(1, 2));
             int col = parse.charAt(0) - 96;
-            return new ChessPosition(row, col);
+            return ChessPosition.of(row, col);
         } catch (NumberFormatException e) {
             return null;
         }
@@ -177,7 +177,7 @@ public class GameUserInterface implements UserInterface {
         Collection<ChessPosition> differences = new HashSet<>();
         for (int i = 1; i <= 8; i++) {
             for (int j = 1; j <= 8; j++) {
-                ChessPosition pos = new ChessPosition(i, j);
+                ChessPosition pos = ChessPosition.of(i, j);
                 ChessPiece piece = baseGame.getBoard().getPiece(pos);
                 ChessPiece prevPiece = newGame.getBoard().getPiece(pos);
 
@@ -3,6 +3,7 @@ package web;
 import com.google.gson.Gson;
 import data.DataCache;
 import model.*;
+import serialization.Serialization;
 
 import java.io.*;
 import java.lang.reflect.Constructor;
@@ -82,7 +83,7 @@ public class ServerFacade {
     private <T> T execute(String apiEndpoint, String requestMethod, Object request,
                           Class<T> responseClass) {
         try {
-            Gson gson = new Gson();
+            Gson gson = Serialization.getGson();
             boolean requestPresent = request != null;
 
             URL url = new URI(this.url + apiEndpoint).toURL();
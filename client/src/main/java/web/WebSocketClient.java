@@ -2,8 +2,9 @@ package web;
 
 import chess.ChessGame;
 import chess.ChessMove;
-import com.google.gson.Gson;
+import chess.GameCodec;
 import data.DataCache;
+import serialization.Serialization;
 import webSocketMessages.serverMessages.ServerMessage;
 import webSocketMessages.userCommands.UserGameCommand;
 
@@ -11,6 +12,8 @@ import javax.websocket.*;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 public class WebSocketClient implements MessageHandler.Whole<String> {
 
@@ -31,13 +34,25 @@ public class WebSocketClient implements MessageHandler.Whole<String> {
         }, uri);
 
         session.addMessageHandler(this);
+        //LOAD_GAME arrives as a binary frame, since joining asks for UserGameCommand.Capability.BINARY_GAME. With
+        //BATCHED_MOVES, the notification for another player's move follows the game as JSON.
+        session.addMessageHandler(ByteBuffer.class, buffer -> {
+            observer.receiveMessage(new ServerMessage(GameCodec.decode(buffer)));
+            if (buffer.hasRemaining()) onMessage(StandardCharsets.UTF_8.decode(buffer).toString());
+        });
 
     }
 
 
     @Override
     public void onMessage(String s) {
-        ServerMessage message = new Gson().fromJson(s, ServerMessage.class);
+        if (s.startsWith("[")) {
+            for (ServerMessage message : Serialization.getGson().fromJson(s, ServerMessage[].class)) {
+                observer.receiveMessage(message);
+            }
+            return;
+        }
+        ServerMessage message = Serialization.getGson().fromJson(s, ServerMessage.class);
         observer.receiveMessage(message);
     }
 
@@ -45,13 +60,15 @@ public class WebSocketClient implements MessageHandler.Whole<String> {
         sendMessage(new UserGameCommand(
                 DataCache.getInstance().getAuthToken(),
                 DataCache.getInstance().getGameId(),
-                DataCache.getInstance().getPlayerColor()));
+                DataCache.getInstance().getPlayerColor())
+                .withCapabilities(UserGameCommand.Capability.BINARY_GAME, UserGameCommand.Capability.BATCHED_MOVES));
     }
     public void joinObserver() throws IOException {
         sendMessage(new UserGameCommand(
                 UserGameCommand.CommandType.JOIN_OBSERVER,
                 DataCache.getInstance().getAuthToken(),
-                DataCache.getInstance().getGameId()));
+                DataCache.getInstance().getGameId())
+                .withCapabilities(UserGameCommand.Capability.BINARY_GAME, UserGameCommand.Capability.BATCHED_MOVES));
     }
     public void makeMove(ChessMove move) throws IOException {
         sendMessage(new UserGameCommand(
@@ -74,6 +91,6 @@ public class WebSocketClient implements MessageHandler.Whole<String> {
 
 
     private void sendMessage(UserGameCommand command) throws IOException {
-        session.getBasicRemote().sendText(new Gson().toJson(command));
+        session.getBasicRemote().sendText(Serialization.getGson().toJson(command));
     }
 }
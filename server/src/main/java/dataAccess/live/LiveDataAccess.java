@@ -0,0 +1,67 @@
+package dataAccess.live;
+
+import dataAccess.*;
+
+/**
+ * Wraps another {@link DataAccess}, keeping games being played in memory with a {@link LiveGameDAO} while users and
+ * auth tokens go straight through.
+ * <p>
+ * How far behind the backing store games may fall is set with the {@code chess.writeBehind.delayMillis} (default
+ * {@value #DEFAULT_DELAY_MILLIS}) and {@code chess.writeBehind.maxPendingMoves} (default
+ * {@value #DEFAULT_MAX_PENDING_MOVES}) system properties, and how long an unused game stays in memory with
+ * {@code chess.writeBehind.idleMillis} (default {@value LiveGameDAO#DEFAULT_IDLE_MILLIS}).
+ */
+public class LiveDataAccess implements DataAccess, AutoCloseable {
+
+    public static final int DEFAULT_DELAY_MILLIS = 250;
+
+    public static final int DEFAULT_MAX_PENDING_MOVES = 8;
+
+    private final DataAccess backing;
+
+    private final LiveGameDAO gameDAO;
+
+
+    public LiveDataAccess(DataAccess backing) {
+        this(backing, Integer.getInteger("chess.writeBehind.delayMillis", DEFAULT_DELAY_MILLIS),
+                Integer.getInteger("chess.writeBehind.maxPendingMoves", DEFAULT_MAX_PENDING_MOVES),
+                Long.getLong("chess.writeBehind.idleMillis", LiveGameDAO.DEFAULT_IDLE_MILLIS));
+    }
+
+
+    public LiveDataAccess(DataAccess backing, long maxDelayMillis, int maxPendingMoves) {
+        this(backing, maxDelayMillis, maxPendingMoves, LiveGameDAO.DEFAULT_IDLE_MILLIS);
+    }
+
+
+    public LiveDataAccess(DataAccess backing, long maxDelayMillis, int maxPendingMoves, long idleMillis) {
+        this.backing = backing;
+        gameDAO = new LiveGameDAO(backing.getGameDAO(), maxDelayMillis, maxPendingMoves, idleMillis);
+    }
+
+
+    @Override
+    public AuthDAO getAuthDAO() {
+        return backing.getAuthDAO();
+    }
+
+    @Override
+    public LiveGameDAO getGameDAO() {
+        return gameDAO;
+    }
+
+    @Override
+    public UserDAO getUserDAO() {
+        return backing.getUserDAO();
+    }
+
+
+    /**
+     * Writes every pending game and stops the background writer
+     */
+    @Override
+    public void close() throws DataAccessException {
+        gameDAO.close();
+    }
+
+}
@@ -0,0 +1,278 @@
+package dataAccess.live;
+
+import chess.ChessGame;
+import dataAccess.DataAccessException;
+import dataAccess.GameDAO;
+import model.GameData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the games being played in memory as the source of truth, writing changes to another {@link GameDAO} in the
+ * background.
+ * <p>
+ * {@link #findGame(int)} loads a game from the backing DAO once, then returns the same {@link GameData} every time,
+ * so the WebSocket handler can change the game in place. {@link #updateGame(GameData)} only records a snapshot of the
+ * game to write. A game is written at most {@code maxDelayMillis} after its first unwritten update, or as soon as it
+ * has {@code maxPendingUpdates} of them, and several moves in that window become a single write. A game that has
+ * ended is written and then dropped from memory, and so is one with nothing left to write that nobody has read or
+ * updated for {@code idleMillis}, such as a game both players walked away from.
+ * <p>
+ * {@link #findAllGames()} never returns the live games, which may be partway through a move on another thread. It
+ * returns the snapshot taken by each game's last update instead, which the caller must only read.
+ * <p>
+ * Creating and clearing games go straight to the backing DAO, since callers need the new game ID or an empty database
+ * right away. If the server stops without {@link #close()}, up to the bound's worth of moves can be lost.
+ */
+public class LiveGameDAO implements GameDAO, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveGameDAO.class);
+
+    public static final long DEFAULT_IDLE_MILLIS = 10 * 60 * 1000;
+
+    private static final int WRITE_LOCKS = 64;
+
+    private final GameDAO backing;
+
+    private final long maxDelayMillis;
+
+    private final int maxPendingUpdates;
+
+    private final long idleMillis;
+
+    private final Map<Integer, LiveGame> live = new ConcurrentHashMap<>();
+
+    private final Map<Integer, PendingWrite> pending = new ConcurrentHashMap<>();
+
+    //Games are written under the lock for their ID, so one game's writes never overlap while different games' can.
+    //ReentrantLock rather than synchronized, so a virtual thread waiting on the database doesn't pin its carrier.
+    private final ReentrantLock[] writeLocks = new ReentrantLock[WRITE_LOCKS];
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+
+    /**
+     * Creates a DAO that drops games from memory after {@value #DEFAULT_IDLE_MILLIS} ms without use
+     *
+     * @param backing           DAO games are loaded from and written to
+     * @param maxDelayMillis    longest a game's update waits before it is written
+     * @param maxPendingUpdates number of unwritten updates to a game that causes it to be written right away
+     */
+    public LiveGameDAO(GameDAO backing, long maxDelayMillis, int maxPendingUpdates) {
+        this(backing, maxDelayMillis, maxPendingUpdates, DEFAULT_IDLE_MILLIS);
+    }
+
+
+    /**
+     * @param backing           DAO games are loaded from and written to
+     * @param maxDelayMillis    longest a game's update waits before it is written
+     * @param maxPendingUpdates number of unwritten updates to a game that causes it to be written right away
+     * @param idleMillis        how long a game with nothing to write stays in memory without being read or updated
+     */
+    public LiveGameDAO(GameDAO backing, long maxDelayMillis, int maxPendingUpdates, long idleMillis) {
+        if (maxDelayMillis < 0) throw new IllegalArgumentException("Delay can't be negative");
+        if (maxPendingUpdates < 1) throw new IllegalArgumentException("Must allow at least one pending update");
+        if (idleMillis < 1) throw new IllegalArgumentException("Idle time must be positive");
+        this.backing = backing;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxPendingUpdates = maxPendingUpdates;
+        this.idleMillis = idleMillis;
+        for (int i = 0; i < WRITE_LOCKS; i++) writeLocks[i] = new ReentrantLock();
+        long sweepMillis = Math.max(1, idleMillis / 2);
+        writer.scheduleWithFixedDelay(this::evictIdle, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    @Override
+    public void clear() throws DataAccessException {
+        //Waits for every write in progress, so a game being written can't come back after the database is cleared
+        for (ReentrantLock lock : writeLocks) lock.lock();
+        try {
+            pending.clear();
+            live.clear();
+            backing.clear();
+        } finally {
+            for (ReentrantLock lock : writeLocks) lock.unlock();
+        }
+    }
+
+
+    @Override
+    public GameData findGame(int gameID) throws DataAccessException {
+        LiveGame liveGame = live.get(gameID);
+        if (liveGame != null) return liveGame.use();
+
+        //A game dropped for being idle just as it was updated is newer in its pending write than in the backing DAO
+        PendingWrite write = pending.get(gameID);
+        GameData game = (write != null) ? copy(write.game()) : backing.findGame(gameID);
+        if (game == null || !game.game().isActive()) return game;
+        //Another thread may have loaded the game first, and everyone must share the same copy
+        LiveGame loaded = live.putIfAbsent(gameID, new LiveGame(game, copy(game)));
+        return (loaded == null) ? game : loaded.use();
+    }
+
+
+    @Override
+    public Collection<GameData> findAllGames() throws DataAccessException {
+        Map<Integer, GameData> games = new LinkedHashMap<>();
+        for (GameData game : backing.findAllGames()) {
+            LiveGame liveGame = live.get(game.gameID());
+            PendingWrite write = pending.get(game.gameID());
+            //An unwritten update is the newest copy, including one to a game that has ended or gone idle since
+            if (write != null) games.put(game.gameID(), write.game());
+            else if (liveGame != null) games.put(game.gameID(), liveGame.snapshot);
+            else games.put(game.gameID(), game);
+        }
+        return games.values();
+    }
+
+
+    @Override
+    public GameData insertGame(GameData game) throws DataAccessException {
+        return backing.insertGame(game);
+    }
+
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        if (game.game() == null) throw new DataAccessException("Game cannot be null");
+        if (writer.isShutdown()) {
+            backing.updateGame(game);
+            return;
+        }
+        //The live game keeps changing, so write a copy of how it is now
+        GameData snapshot = copy(game);
+        if (game.game().isActive()) live.put(game.gameID(), new LiveGame(game, snapshot));
+
+        PendingWrite write = pending.merge(game.gameID(), new PendingWrite(snapshot, 1),
+                (old, update) -> new PendingWrite(update.game(), old.updates() + 1));
+        if (write.updates() == 1) writer.schedule(() -> flush(game.gameID()), maxDelayMillis, TimeUnit.MILLISECONDS);
+        else if (write.updates() == maxPendingUpdates) writer.execute(() -> flush(game.gameID()));
+    }
+
+
+    /**
+     * Writes every game with unwritten updates, returning once they are all written
+     *
+     * @throws DataAccessException if the backing DAO couldn't write a game. The game stays pending.
+     */
+    public void flush() throws DataAccessException {
+        for (Integer gameID : pending.keySet()) {
+            write(gameID);
+        }
+    }
+
+
+    /**
+     * Writes every pending game and stops the background writer
+     */
+    @Override
+    public void close() throws DataAccessException {
+        writer.shutdown();
+        flush();
+    }
+
+
+    /**
+     * @return number of games with updates that haven't been written yet
+     */
+    public int pendingGames() {
+        return pending.size();
+    }
+
+
+    /**
+     * @return number of games held in memory
+     */
+    public int liveGames() {
+        return live.size();
+    }
+
+
+    private void flush(int gameID) {
+        try {
+            write(gameID);
+        } catch (DataAccessException e) {
+            log.warn("Couldn't write game " + gameID + ", will retry: ", e);
+            if (!writer.isShutdown()) {
+                writer.schedule(() -> flush(gameID), Math.max(maxDelayMillis, 100), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+
+    private void write(int gameID) throws DataAccessException {
+        ReentrantLock lock = writeLocks[Math.floorMod(gameID, WRITE_LOCKS)];
+        lock.lock();
+        try {
+            PendingWrite write = pending.get(gameID);
+            if (write == null) return;
+            //The write stays pending until it is done, so findGame never reads the backing DAO from before it.
+            //Updates that arrive meanwhile replace it, and are written before returning.
+            do {
+                write = pending.get(gameID);
+                backing.updateGame(write.game());
+            } while (!pending.remove(gameID, write));
+            if (!write.game().game().isActive()) live.remove(gameID);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    private void evictIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        for (Map.Entry<Integer, LiveGame> entry : live.entrySet()) {
+            LiveGame liveGame = entry.getValue();
+            if (liveGame.lastUsed - cutoff < 0 && !pending.containsKey(entry.getKey())) {
+                live.remove(entry.getKey(), liveGame);
+            }
+        }
+    }
+
+
+    private static GameData copy(GameData game) {
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                new ChessGame(game.game()));
+    }
+
+
+    private record PendingWrite(GameData game, int updates) {}
+
+
+    /**
+     * A game in memory, a copy of it from its last update, and when it was last read or updated
+     */
+    private static class LiveGame {
+
+        final GameData game;
+
+        final GameData snapshot;
+
+        volatile long lastUsed = System.nanoTime();
+
+        LiveGame(GameData game, GameData snapshot) {
+            this.game = game;
+            this.snapshot = snapshot;
+        }
+
+        GameData use() {
+            lastUsed = System.nanoTime();
+            return game;
+        }
+    }
+
+}
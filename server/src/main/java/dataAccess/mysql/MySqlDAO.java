@@ -1,9 +1,9 @@
 package dataAccess.mysql;
 
 import chess.ChessGame;
-import com.google.gson.Gson;
 import dataAccess.DataAccessException;
 import dataAccess.DatabaseManager;
+import serialization.Serialization;
 
 import java.sql.*;
 
@@ -53,7 +53,8 @@ public abstract class MySqlDAO {
             switch (param) {
                 case String p -> ps.setString(i + 1, p);
                 case Integer p -> ps.setInt(i + 1, p);
-                case ChessGame p -> ps.setString(i + 1, new Gson().toJson(p));
+                case ChessGame p -> ps.setString(i + 1, Serialization.getGson().toJson(p));
+                case byte[] p -> ps.setBytes(i + 1, p);
                 case null -> ps.setNull(i + 1, Types.NULL);
                 default -> throw new DataAccessException("Unexpected data type: " + param.getClass());
             }
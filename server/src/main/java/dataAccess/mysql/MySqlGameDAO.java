@@ -1,10 +1,11 @@
 package dataAccess.mysql;
 
 import chess.ChessGame;
-import com.google.gson.Gson;
+import chess.GameCodec;
 import dataAccess.DataAccessException;
 import dataAccess.GameDAO;
 import model.GameData;
+import serialization.Serialization;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -12,7 +13,9 @@ import java.util.Collection;
 import java.util.HashSet;
 
 public class MySqlGameDAO extends MySqlDAO implements GameDAO {
-    public MySqlGameDAO() throws DataAccessException {}
+    public MySqlGameDAO() throws DataAccessException {
+        addGameStateColumn();
+    }
 
     @Override
     public void clear() throws DataAccessException {
@@ -38,17 +41,18 @@ public class MySqlGameDAO extends MySqlDAO implements GameDAO {
 
     @Override
     public GameData insertGame(GameData game) throws DataAccessException {
-        int gameId =
-                executeUpdate("INSERT INTO game (gameName, whiteUsername, blackUsername, game) VALUES (?, ?, ?, ?);",
-                        game.gameName(), game.whiteUsername(), game.blackUsername(), game.game());
+        int gameId = executeUpdate(
+                "INSERT INTO game (gameName, whiteUsername, blackUsername, gameState) VALUES (?, ?, ?, ?);",
+                game.gameName(), game.whiteUsername(), game.blackUsername(), encode(game.game()));
         return new GameData(gameId, game.whiteUsername(), game.blackUsername(), game.gameName(), game.game());
     }
 
 
     @Override
     public void updateGame(GameData game) throws DataAccessException {
-        executeUpdate("UPDATE game SET whiteUsername = ?, blackUsername = ?, game = ? WHERE gameID = ?",
-                game.whiteUsername(), game.blackUsername(), game.game(), game.gameID());
+        executeUpdate(
+                "UPDATE game SET whiteUsername = ?, blackUsername = ?, game = NULL, gameState = ? WHERE gameID = ?",
+                game.whiteUsername(), game.blackUsername(), encode(game.game()), game.gameID());
     }
 
     @Override
@@ -59,13 +63,41 @@ public class MySqlGameDAO extends MySqlDAO implements GameDAO {
                 `gameName` VARCHAR(64) NOT NULL,
                 `whiteUsername` VARCHAR(64),
                 `blackUsername` VARCHAR(64),
-                `game` LONGTEXT NOT NULL
+                `game` LONGTEXT,
+                `gameState` BLOB
             )ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
             """};
     }
 
+    /**
+     * Tables made before games were stored with {@link GameCodec} have only the JSON `game` column, and it can't be
+     * null. Adds the binary column and lets the JSON one be emptied; rows keep their JSON until they're next updated.
+     */
+    private void addGameStateColumn() throws DataAccessException {
+        boolean hasColumn = executeQuery("""
+                SELECT COUNT(*) FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game' AND COLUMN_NAME = 'gameState';
+                """, rs -> rs.next() && rs.getInt(1) > 0);
+        if (!hasColumn) {
+            executeUpdate("ALTER TABLE game MODIFY `game` LONGTEXT NULL, ADD COLUMN `gameState` BLOB;");
+        }
+    }
+
+    private static byte[] encode(ChessGame game) throws DataAccessException {
+        if (game == null) throw new DataAccessException("Game cannot be null");
+        return GameCodec.encodeWithHistory(game);
+    }
+
     private GameData readGame(ResultSet rs) throws SQLException {
+        byte[] state = rs.getBytes("gameState");
+        ChessGame game;
+        try {
+            game = (state != null) ? GameCodec.decodeWithHistory(state) :
+                    Serialization.getGson().fromJson(rs.getString("game"), ChessGame.class);
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("Stored game " + rs.getInt("gameID") + " can't be read: " + e.getMessage(), e);
+        }
         return new GameData(rs.getInt("gameID"), rs.getString("whiteUsername"), rs.getString("blackUsername"),
-                rs.getString("gameName"), new Gson().fromJson(rs.getString("game"), ChessGame.class));
+                rs.getString("gameName"), game);
     }
 }
@@ -1,6 +1,6 @@
 package handler;
 
-import com.google.gson.Gson;
+import serialization.Serialization;
 import spark.ExceptionHandler;
 import spark.Request;
 import spark.Response;
@@ -30,6 +30,6 @@ public class ChessServerExceptionHandler<T extends Exception> implements Excepti
     public void handle(T t, Request request, Response response) {
         if (t.getCause() != null) t.printStackTrace();
         response.status(responseCode);
-        response.body(new Gson().toJson(Map.of("message", t.getMessage())));
+        response.body(Serialization.getGson().toJson(Map.of("message", t.getMessage())));
     }
 }
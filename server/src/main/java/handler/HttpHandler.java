@@ -2,6 +2,7 @@ package handler;
 
 import com.google.gson.Gson;
 import dataAccess.DataAccess;
+import serialization.Serialization;
 import service.ChessServerException;
 import spark.Request;
 import spark.Response;
@@ -20,7 +21,7 @@ public abstract class HttpHandler<T> implements Route {
 
     @Override
     public Object handle(Request request, Response response) throws ChessServerException {
-        Gson gson = new Gson();
+        Gson gson = Serialization.getGson();
         String authToken = request.headers("Authorization");
 
         T requestObject = null;
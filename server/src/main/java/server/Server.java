@@ -2,40 +2,64 @@ package server;
 
 import dataAccess.DataAccess;
 import dataAccess.DataAccessException;
+import dataAccess.live.LiveDataAccess;
 import dataAccess.mysql.MySqlDataAccess;
 import handler.*;
 import service.BadRequestException;
 import service.ChessServerException;
+import service.GameBusyException;
 import service.RequestItemTakenException;
 import service.UnauthorizedException;
 import spark.Spark;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
 import websocket.WebSocketHandler;
 
 import java.net.HttpURLConnection;
 
 public class Server {
 
+    private DataAccess dataAccess;
+
     public static void main(String[] args) {
         new Server().run(8080);
     }
 
     public int run(int desiredPort) {
+        DataAccess mySqlDataAccess;
         try {
-            Thread.sleep(20);
-        } catch (InterruptedException e) {
+            mySqlDataAccess = new MySqlDataAccess();
+        } catch (DataAccessException e) {
             throw new RuntimeException(e);
         }
-        Spark.port(desiredPort);
-
-        Spark.staticFiles.location("web");
+        //Games being played are kept in memory and written to the database in the background
+        if (Boolean.parseBoolean(System.getProperty("chess.writeBehind", "true"))) {
+            mySqlDataAccess = new LiveDataAccess(mySqlDataAccess);
+        }
+        return run(desiredPort, mySqlDataAccess);
+    }
 
-        DataAccess dataAccess;
 
+    /**
+     * Starts the server on the given data access, such as an in-memory one for load testing.
+     * <p>
+     * With the {@code chess.virtualThreads} system property set to true, Jetty runs each request and WebSocket message
+     * on its own virtual thread, rather than on a pool of at most 200 platform threads, so requests blocked on the
+     * database don't hold up the rest.
+     */
+    public int run(int desiredPort, DataAccess dataAccess) {
+        this.dataAccess = dataAccess;
         try {
-            dataAccess = new MySqlDataAccess();
-        } catch (DataAccessException e) {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
+        EmbeddedJettyFactory jettyFactory = new EmbeddedJettyFactory();
+        if (Boolean.getBoolean("chess.virtualThreads")) jettyFactory.withThreadPool(new VirtualThreadPool());
+        EmbeddedServers.add(EmbeddedServers.defaultIdentifier(), jettyFactory);
+        Spark.port(desiredPort);
+
+        Spark.staticFiles.location("web");
 
         WebSocketHandler ws = WebSocketHandler.getInstance();
         ws.setDataAccess(dataAccess);
@@ -61,6 +85,7 @@ public class Server {
         Spark.exception(BadRequestException.class, new ChessServerExceptionHandler<>(HttpURLConnection.HTTP_BAD_REQUEST));
         Spark.exception(UnauthorizedException.class, new ChessServerExceptionHandler<>(HttpURLConnection.HTTP_UNAUTHORIZED));
         Spark.exception(RequestItemTakenException.class, new ChessServerExceptionHandler<>(HttpURLConnection.HTTP_FORBIDDEN));
+        Spark.exception(GameBusyException.class, new ChessServerExceptionHandler<>(HttpURLConnection.HTTP_UNAVAILABLE));
         Spark.exception(ChessServerException.class, new ChessServerExceptionHandler<>(HttpURLConnection.HTTP_INTERNAL_ERROR));
 
         Spark.awaitInitialization();
@@ -69,5 +94,12 @@ public class Server {
 
     public void stop() {
         Spark.stop();
+        if (dataAccess instanceof LiveDataAccess liveDataAccess) {
+            try {
+                liveDataAccess.close();
+            } catch (DataAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
     }
 }
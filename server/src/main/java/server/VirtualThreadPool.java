@@ -0,0 +1,75 @@
+package server;
+
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Jetty thread pool that runs every task on its own virtual thread, so requests blocked on the database or on
+ * password hashing park cheaply instead of holding one of a fixed number of platform threads.
+ * <p>
+ * Jetty 9.4 predates virtual threads, so this implements its {@link ThreadPool} interface directly. There is no limit
+ * to hand out and no idle threads to keep, so the pool never reports being low on threads. A new executor is made
+ * each time the server starts, so the same pool can be used across restarts.
+ */
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private volatile ExecutorService executor;
+
+
+    @Override
+    protected void doStart() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jetty-virtual-", 0).factory());
+    }
+
+
+    @Override
+    protected void doStop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+
+    @Override
+    public void execute(Runnable task) {
+        running.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+    }
+
+
+    @Override
+    public void join() throws InterruptedException {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+
+    @Override
+    public int getThreads() {
+        return running.get();
+    }
+
+
+    @Override
+    public int getIdleThreads() {
+        return 0;
+    }
+
+
+    @Override
+    public boolean isLowOnThreads() {
+        return false;
+    }
+
+}
@@ -0,0 +1,66 @@
+package service;
+
+import java.security.PrivilegedActionException;
+
+/**
+ * Exception to be thrown if a game is too busy to take the request right now, so the client should try again
+ */
+public class GameBusyException extends ChessServerException {
+
+    /**
+     * Constructs a new exception with {@code null} as its detail message.
+     * The cause is not initialized
+     */
+    public GameBusyException() {}
+
+
+    /**
+     * Constructs a new exception with the specified detail message.  The
+     * cause is not initialized
+     *
+     * @param message the detail message. The detail message is saved for
+     *                later retrieval by the {@link #getMessage()} method.
+     */
+    public GameBusyException(String message) {
+        super(message);
+    }
+
+
+    /**
+     * Constructs a new exception with the specified detail message and
+     * cause.  <p>Note that the detail message associated with
+     * {@code cause} is <i>not</i> automatically incorporated in
+     * this exception's detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval
+     *                by the {@link #getMessage()} method).
+     * @param cause   the cause (which is saved for later retrieval by the
+     *                {@link #getCause()} method).  (A {@code null} value is
+     *                permitted, and indicates that the cause is nonexistent or
+     *                unknown.)
+     * @since 1.4
+     */
+    public GameBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+
+    /**
+     * Constructs a new exception with the specified cause and a detail
+     * message of {@code (cause==null ? null : cause.toString())} (which
+     * typically contains the class and detail message of {@code cause}).
+     * This constructor is useful for exceptions that are little more than
+     * wrappers for other throwables (for example, {@link
+     * PrivilegedActionException}).
+     *
+     * @param cause the cause (which is saved for later retrieval by the
+     *              {@link #getCause()} method).  (A {@code null} value is
+     *              permitted, and indicates that the cause is nonexistent or
+     *              unknown.)
+     * @since 1.4
+     */
+    public GameBusyException(Throwable cause) {
+        super(cause);
+    }
+
+}
@@ -0,0 +1,152 @@
+package service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the work for each game one task at a time, in the order it was submitted, while different games run in
+ * parallel on a shared pool.
+ * <p>
+ * Each game has a mailbox of tasks. Submitting to an idle mailbox hands it to the pool, and the pool thread then runs
+ * the mailbox's tasks until it is empty, so a game only ever occupies one thread and needs no locks of its own. A game
+ * with a long queue doesn't hold a thread from other games for more than {@value #BATCH_SIZE} tasks at a time.
+ * <p>
+ * A mailbox is removed once its queue has drained, so games nobody is playing cost nothing. Adding a task and
+ * removing an empty mailbox both go through the map's lock for the game, so a task is never added to a mailbox that
+ * has been removed.
+ */
+public class GameExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(GameExecutor.class);
+
+    private static final int BATCH_SIZE = 32;
+
+    private static final GameExecutor SHARED = new GameExecutor(Boolean.getBoolean("chess.virtualThreads") ?
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("game-executor-", 0).factory()) :
+            newPool(Integer.getInteger("chess.gameExecutor.threads",
+                    Math.max(4, Runtime.getRuntime().availableProcessors() * 2))));
+
+    private final Executor pool;
+
+    private final Map<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+
+    /**
+     * @param pool threads to run games' tasks on
+     */
+    public GameExecutor(Executor pool) {
+        this.pool = pool;
+    }
+
+
+    /**
+     * @return the executor the WebSocket handler and services share. Mailboxes run on virtual threads if the
+     * {@code chess.virtualThreads} system property is true, and otherwise on a pool with the number of threads set by
+     * {@code chess.gameExecutor.threads}.
+     */
+    public static GameExecutor shared() {
+        return SHARED;
+    }
+
+
+    /**
+     * Queues a task behind every task already submitted for the same game
+     *
+     * @param gameID game the task works on
+     * @param task   work to run. Anything it throws is logged, and the game's later tasks still run.
+     */
+    public void execute(int gameID, Runnable task) {
+        Mailbox mailbox = mailboxes.compute(gameID, (id, existing) -> {
+            Mailbox box = (existing == null) ? new Mailbox(id) : existing;
+            box.tasks.add(task);
+            return box;
+        });
+        if (mailbox.scheduled.compareAndSet(false, true)) pool.execute(mailbox);
+    }
+
+
+    /**
+     * @return number of games with tasks queued or running
+     */
+    public int activeGames() {
+        return mailboxes.size();
+    }
+
+
+    /**
+     * Queues a task behind every task already submitted for the same game, giving back its result
+     *
+     * @param gameID game the task works on
+     * @param task   work to run
+     * @return a future completed with the task's result, or exceptionally with what it threw
+     */
+    public <T> CompletableFuture<T> submit(int gameID, Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(gameID, () -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+
+    private static ExecutorService newPool(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-executor-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * One game's queue of tasks, and whether a pool thread is working through it
+     */
+    private class Mailbox implements Runnable {
+
+        private final int gameID;
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+
+        Mailbox(int gameID) {
+            this.gameID = gameID;
+        }
+
+
+        @Override
+        public void run() {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Runnable task = tasks.poll();
+                if (task == null) break;
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.warn("Game task failed: ", e);
+                }
+            }
+
+            scheduled.set(false);
+            if (tasks.isEmpty()) {
+                //Tasks are only added under the map's lock, so an empty, idle mailbox stays that way while it's removed
+                mailboxes.computeIfPresent(gameID,
+                        (id, box) -> (box == this && tasks.isEmpty() && !scheduled.get()) ? null : box);
+            }
+            //A task may have arrived after the last poll but before the flag was cleared, and nobody else saw it
+            if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) pool.execute(this);
+        }
+    }
+
+}
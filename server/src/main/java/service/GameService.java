@@ -8,8 +8,13 @@ import model.GameData;
 import model.JoinGameRequest;
 import model.ListGamesResponse;
 
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class GameService {
 
+    private static final long JOIN_TIMEOUT_MILLIS = Long.getLong("chess.joinTimeoutMillis", 2000);
+
     private final DataAccess dataAccess;
 
 
@@ -45,7 +50,52 @@ public class GameService {
     }
 
 
-    public synchronized void joinGame(JoinGameRequest request, String authToken) throws ChessServerException {
+    /**
+     * Claims a color in a game for the user. Runs on the game's {@link GameExecutor} mailbox, so it can't race with
+     * another join or a WebSocket command for the same game, while joins to other games go ahead in parallel.
+     * The game and token are checked first, so requests for games that don't exist never reach a mailbox. If the
+     * mailbox doesn't get to the claim within {@code chess.joinTimeoutMillis} (default 2000), the claim is called
+     * off and the request fails with a {@link GameBusyException}, rather than tying up one of the server's request
+     * threads.
+     */
+    public void joinGame(JoinGameRequest request, String authToken) throws ChessServerException {
+        try {
+            if (dataAccess.getGameDAO().findGame(request.gameID()) == null) {
+                throw new BadRequestException("Error: Game not found");
+            }
+            authorization(authToken);
+        } catch (DataAccessException e) {
+            throw new ChessServerException(e);
+        }
+
+        //Whichever of the claim and the timeout sets this first decides whether the claim happens
+        AtomicBoolean started = new AtomicBoolean();
+        CompletableFuture<Void> claim = GameExecutor.shared().submit(request.gameID(), () -> {
+            if (started.compareAndSet(false, true)) claimColor(request, authToken);
+            return null;
+        });
+        try {
+            try {
+                claim.get(JOIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                //Don't hold the request thread behind a busy game's queue
+                if (started.compareAndSet(false, true)) {
+                    throw new GameBusyException("Error: Game is busy, try again");
+                }
+                //The claim already started, and only has the game's own reads and writes left to do
+                claim.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ChessServerException serverException) throw serverException;
+            throw new ChessServerException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChessServerException(e);
+        }
+    }
+
+
+    private void claimColor(JoinGameRequest request, String authToken) throws ChessServerException {
         try {
             GameData game = dataAccess.getGameDAO().findGame(request.gameID());
             if (game == null) throw new BadRequestException("Error: Game not found");
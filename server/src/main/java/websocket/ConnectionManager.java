@@ -1,46 +1,277 @@
 package websocket;
 
+import chess.ChessGame;
+import chess.GameCodec;
 import com.google.gson.Gson;
 import org.eclipse.jetty.websocket.api.Session;
+import serialization.Serialization;
 import webSocketMessages.serverMessages.ServerMessage;
+import webSocketMessages.userCommands.UserGameCommand;
 
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Tracks which sessions are in each game, and sends them messages.
+ * <p>
+ * Nothing here waits for a client. Each session has an {@link Outbox} that sends its messages asynchronously, so one
+ * slow spectator doesn't hold up the command being handled or anyone else's messages.
+ */
 public class ConnectionManager {
+
+    /**
+     * What to do when a session has too many messages waiting to be sent
+     */
+    public enum SlowConsumerPolicy {
+        /**
+         * Drop the oldest waiting LOAD_GAME, closing the session if there isn't one
+         */
+        DROP_OLDEST_GAME,
+        /**
+         * Close the session
+         */
+        DISCONNECT
+    }
+
     private final Map<Integer, Set<Session>> sessions = new ConcurrentHashMap<>();
 
+    private final Map<Session, Set<UserGameCommand.Capability>> capabilities = new ConcurrentHashMap<>();
+
+    private final Map<Session, Outbox> outboxes = new ConcurrentHashMap<>();
+
+    private final OutboundMetrics metrics = new OutboundMetrics();
+
+    private final int queueCapacity;
+
+    private final SlowConsumerPolicy policy;
+
+    private final Gson gson = Serialization.getGson();
+
+
+    /**
+     * Creates a connection manager configured by the {@code chess.outbound.queueSize} (default 64) and
+     * {@code chess.outbound.slowConsumerPolicy} (default {@code DROP_OLDEST_GAME}) system properties
+     */
+    public ConnectionManager() {
+        this(Integer.getInteger("chess.outbound.queueSize", 64), SlowConsumerPolicy.valueOf(
+                System.getProperty("chess.outbound.slowConsumerPolicy", "DROP_OLDEST_GAME").toUpperCase()));
+    }
+
+
+    /**
+     * @param queueCapacity most messages that can wait for one session behind the one being sent
+     * @param policy        what to do when a session has that many waiting and another is sent
+     */
+    public ConnectionManager(int queueCapacity, SlowConsumerPolicy policy) {
+        if (queueCapacity < 1) throw new IllegalArgumentException("Queue capacity must be positive");
+        this.queueCapacity = queueCapacity;
+        this.policy = policy;
+    }
+
 
     public void addSession(int gameId, Session session) {
-        if(!sessions.containsKey(gameId)) sessions.put(gameId, Collections.synchronizedSet(new HashSet<>()));
-        sessions.get(gameId).add(session);
+        //Concurrent sets, so a broadcast can iterate a game's sessions while they join and leave
+        sessions.computeIfAbsent(gameId, id -> ConcurrentHashMap.newKeySet()).add(session);
+    }
+
+    /**
+     * Adds a session to a game, remembering which optional message formats it asked for
+     */
+    public void addSession(int gameId, Session session, Set<UserGameCommand.Capability> sessionCapabilities) {
+        addSession(gameId, session);
+        capabilities.put(session, sessionCapabilities);
     }
 
     public void removeSession(int gameId, Session session) {
-        if(sessions.containsKey(gameId)) sessions.get(gameId).remove(session);
+        Set<Session> gameSessions = sessions.get(gameId);
+        if (gameSessions != null) gameSessions.remove(session);
+        capabilities.remove(session);
+    }
+
+    /**
+     * Forgets a closed session, removing it from every game and dropping the messages it was still waiting for
+     */
+    public void removeSession(Session session) {
+        for (Set<Session> gameSessions : sessions.values()) gameSessions.remove(session);
+        capabilities.remove(session);
+        Outbox outbox = outboxes.remove(session);
+        if (outbox != null) outbox.close();
     }
 
-    public void broadcast(String message, int gameId, Session exclude) throws IOException {
-        for (Session ses : sessions.get(gameId)) {
-            if (ses != exclude) sendMessage(ses, message);
+    /**
+     * Sends a message to every session in a game, encoding it once for all of them
+     */
+    public void broadcast(ServerMessage message, int gameId, Session exclude) {
+        Frame frame = Frame.text(gson.toJson(message));
+        for (Session ses : sessions(gameId)) {
+            if (ses != exclude) send(ses, frame);
+        }
+    }
+
+
+    /**
+     * Sends LOAD_GAME to every session in a game, as a binary frame to sessions that asked for
+     * {@link UserGameCommand.Capability#BINARY_GAME} and as JSON to the rest. Each format is encoded at most once.
+     */
+    public void broadcastGame(ChessGame game, int gameId, Session exclude) {
+        MoveFrames frames = new MoveFrames(game, null);
+        for (Session ses : sessions(gameId)) {
+            if (ses != exclude) send(ses, frames.game(wantsBinaryGame(ses)));
+        }
+    }
+
+
+    /**
+     * Sends the LOAD_GAME for a move to every session in a game, and the notification describing it to everyone but
+     * the player who made it. Sessions that asked for {@link UserGameCommand.Capability#BATCHED_MOVES} get both in one
+     * frame. Each frame is encoded at most once, however many sessions it goes to.
+     *
+     * @param mover session that only gets the game
+     */
+    public void broadcastMove(ChessGame game, ServerMessage notification, int gameId, Session mover) {
+        MoveFrames frames = new MoveFrames(game, notification);
+        for (Session ses : sessions(gameId)) {
+            Set<UserGameCommand.Capability> sessionCapabilities = capabilities(ses);
+            boolean binaryGame = sessionCapabilities.contains(UserGameCommand.Capability.BINARY_GAME);
+            if (ses == mover) {
+                send(ses, frames.game(binaryGame));
+            } else if (sessionCapabilities.contains(UserGameCommand.Capability.BATCHED_MOVES)) {
+                send(ses, frames.batch(binaryGame));
+            } else {
+                send(ses, frames.game(binaryGame));
+                send(ses, frames.notification());
+            }
         }
     }
 
 
-    public void sendError(Session session, String message) throws IOException {
-        ServerMessage error = new ServerMessage(ServerMessage.ServerMessageType.ERROR, message);
-        sendMessage(session, new Gson().toJson(error));
+    /**
+     * Sends LOAD_GAME to one session, in the format it asked for
+     */
+    public void sendGame(Session session, ChessGame game) {
+        send(session, new MoveFrames(game, null).game(wantsBinaryGame(session)));
     }
 
 
-    public void sendMessage(Session session, String message) throws IOException {
+    public void sendError(Session session, String message) {
+        sendMessage(session, new ServerMessage(ServerMessage.ServerMessageType.ERROR, message));
+    }
+
+
+    public void sendMessage(Session session, ServerMessage message) {
+        send(session, Frame.text(gson.toJson(message)));
+    }
+
+
+    /**
+     * @return counts of the messages waiting for, sent to and dropped from every session
+     */
+    public OutboundMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void send(Session session, Frame frame) {
+        //A session that has already closed won't be removed again, so it mustn't get an outbox
         if (session.isOpen()) {
-            session.getRemote().sendString(message);
+            outboxes.computeIfAbsent(session, ses -> new Outbox(ses, queueCapacity, policy, metrics)).send(frame);
         }
     }
 
+    private Set<Session> sessions(int gameId) {
+        return sessions.getOrDefault(gameId, Set.of());
+    }
+
+    private Set<UserGameCommand.Capability> capabilities(Session session) {
+        return capabilities.getOrDefault(session, Set.of());
+    }
+
+    private boolean wantsBinaryGame(Session session) {
+        return capabilities(session).contains(UserGameCommand.Capability.BINARY_GAME);
+    }
+
     public void clear() {
         sessions.clear();
+        capabilities.clear();
+        for (Outbox outbox : outboxes.values()) outbox.close();
+        outboxes.clear();
+    }
+
+
+    /**
+     * The frames one move can be sent as, each encoded the first time a session needs it
+     */
+    private class MoveFrames {
+
+        private final ChessGame game;
+
+        private final ServerMessage notification;
+
+        private String gameJson;
+
+        private byte[] gameBinary;
+
+        private Frame jsonGame;
+
+        private Frame binaryGame;
+
+        private Frame notificationFrame;
+
+        private Frame jsonBatch;
+
+        private Frame binaryBatch;
+
+
+        MoveFrames(ChessGame game, ServerMessage notification) {
+            this.game = game;
+            this.notification = notification;
+        }
+
+
+        Frame game(boolean binary) {
+            if (binary) {
+                if (binaryGame == null) binaryGame = Frame.game(gameBinary());
+                return binaryGame;
+            }
+            if (jsonGame == null) jsonGame = Frame.game(gameJson());
+            return jsonGame;
+        }
+
+
+        Frame notification() {
+            if (notificationFrame == null) notificationFrame = Frame.text(gson.toJson(notification));
+            return notificationFrame;
+        }
+
+
+        /**
+         * The game and notification in one frame, in the format {@link UserGameCommand.Capability#BATCHED_MOVES}
+         * describes
+         */
+        Frame batch(boolean binary) {
+            if (binary) {
+                if (binaryBatch == null) {
+                    byte[] notificationJson = gson.toJson(notification).getBytes(StandardCharsets.UTF_8);
+                    byte[] batch = Arrays.copyOf(gameBinary(), gameBinary().length + notificationJson.length);
+                    System.arraycopy(notificationJson, 0, batch, gameBinary().length, notificationJson.length);
+                    binaryBatch = Frame.binary(batch);
+                }
+                return binaryBatch;
+            }
+            if (jsonBatch == null) jsonBatch = Frame.text('[' + gameJson() + ',' + gson.toJson(notification) + ']');
+            return jsonBatch;
+        }
+
+
+        private String gameJson() {
+            if (gameJson == null) gameJson = gson.toJson(new ServerMessage(game));
+            return gameJson;
+        }
+
+
+        private byte[] gameBinary() {
+            if (gameBinary == null) gameBinary = GameCodec.encode(game);
+            return gameBinary;
+        }
     }
 }
@@ -0,0 +1,66 @@
+package websocket;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.WebSocketFrame;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
+import org.eclipse.jetty.websocket.common.frames.BinaryFrame;
+import org.eclipse.jetty.websocket.common.frames.TextFrame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One WebSocket message, encoded once and then sent as-is to any number of sessions.
+ * <p>
+ * Text is kept as UTF-8 bytes, which Jetty can put on the wire without encoding the string again for every session.
+ * The payload is read-only, and each send reads it through its own view, so a frame is safe to share between
+ * sessions and threads.
+ *
+ * @param payload the message's bytes
+ * @param binary  whether to send a binary frame rather than a text one
+ * @param game    whether this is only a LOAD_GAME, which a later LOAD_GAME for the same game makes out of date
+ */
+record Frame(ByteBuffer payload, boolean binary, boolean game) {
+
+    static Frame text(String text) {
+        return new Frame(utf8(text), false, false);
+    }
+
+
+    static Frame game(String json) {
+        return new Frame(utf8(json), false, true);
+    }
+
+
+    static Frame game(byte[] binary) {
+        return new Frame(ByteBuffer.wrap(binary).asReadOnlyBuffer(), true, true);
+    }
+
+
+    /**
+     * A binary frame that carries more than a LOAD_GAME, so it can't be dropped in favor of a later one
+     */
+    static Frame binary(byte[] binary) {
+        return new Frame(ByteBuffer.wrap(binary).asReadOnlyBuffer(), true, false);
+    }
+
+
+    void sendTo(RemoteEndpoint remote, WriteCallback callback) {
+        ByteBuffer data = payload.duplicate();
+        if (remote instanceof WebSocketRemoteEndpoint jetty) {
+            WebSocketFrame frame = binary ? new BinaryFrame() : new TextFrame();
+            jetty.uncheckedSendFrame(frame.setPayload(data), callback);
+        } else if (binary) {
+            remote.sendBytes(data, callback);
+        } else {
+            remote.sendString(StandardCharsets.UTF_8.decode(data).toString(), callback);
+        }
+    }
+
+
+    private static ByteBuffer utf8(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
+}
@@ -0,0 +1,94 @@
+package websocket;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of what the {@link ConnectionManager}'s outbound queues are doing, shared by every session's queue
+ */
+public class OutboundMetrics {
+
+    private final AtomicInteger queuedFrames = new AtomicInteger();
+
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    private final LongAdder sentFrames = new LongAdder();
+
+    private final LongAdder droppedFrames = new LongAdder();
+
+    private final LongAdder disconnectedSessions = new LongAdder();
+
+
+    /**
+     * @return frames waiting to be sent, across all sessions
+     */
+    public int getQueuedFrames() {
+        return queuedFrames.get();
+    }
+
+
+    /**
+     * @return most frames that have been waiting for any one session at once
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+
+    /**
+     * @return frames the client has been sent
+     */
+    public long getSentFrames() {
+        return sentFrames.sum();
+    }
+
+
+    /**
+     * @return frames thrown away because their session's queue was full, or because it closed before they were sent
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.sum();
+    }
+
+
+    /**
+     * @return sessions closed for falling too far behind
+     */
+    public long getDisconnectedSessions() {
+        return disconnectedSessions.sum();
+    }
+
+
+    void queued(int depth) {
+        queuedFrames.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+
+
+    void dequeued(int frames) {
+        queuedFrames.addAndGet(-frames);
+    }
+
+
+    void sent() {
+        sentFrames.increment();
+    }
+
+
+    void dropped(int frames) {
+        droppedFrames.add(frames);
+    }
+
+
+    void disconnected() {
+        disconnectedSessions.increment();
+    }
+
+
+    @Override
+    public String toString() {
+        return String.format("OutboundMetrics[queued=%d, max depth=%d, sent=%d, dropped=%d, disconnected=%d]",
+                getQueuedFrames(), getMaxQueueDepth(), getSentFrames(), getDroppedFrames(), getDisconnectedSessions());
+    }
+
+}
@@ -0,0 +1,145 @@
+package websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * The frames waiting to go out to one session. They are sent asynchronously and in order, one at a time, so a slow
+ * client only holds up its own messages and never the thread that queued them.
+ * <p>
+ * At most {@code capacity} frames wait behind the one being sent. Queueing another to a full outbox follows the
+ * {@link ConnectionManager.SlowConsumerPolicy}: either the oldest waiting LOAD_GAME is dropped, since the newer ones
+ * describe the game just as well, or the session is closed. A full outbox with no LOAD_GAME to drop is always closed,
+ * since the client can't be brought up to date without the messages it would lose.
+ */
+class Outbox {
+
+    private static final Logger log = LoggerFactory.getLogger(Outbox.class);
+
+    private final Session session;
+
+    private final int capacity;
+
+    private final ConnectionManager.SlowConsumerPolicy policy;
+
+    private final OutboundMetrics metrics;
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    private final WriteCallback sendNext = new WriteCallback() {
+        @Override
+        public void writeSuccess() {
+            metrics.sent();
+            sendNext();
+        }
+
+        @Override
+        public void writeFailed(Throwable e) {
+            log.debug("Couldn't send to " + session.getRemoteAddress() + ": ", e);
+            close();
+        }
+    };
+
+    private boolean sending;
+
+    private boolean closed;
+
+
+    Outbox(Session session, int capacity, ConnectionManager.SlowConsumerPolicy policy, OutboundMetrics metrics) {
+        this.session = session;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+
+    /**
+     * Queues a frame behind the ones already waiting, starting to send if nothing is being sent
+     */
+    void send(Frame frame) {
+        boolean full;
+        synchronized (this) {
+            if (closed) return;
+            full = frames.size() >= capacity && !dropOldestGame();
+            if (full) {
+                //The session is closed outside the lock, as that can call back into the connection manager
+                closed = true;
+            } else {
+                frames.add(frame);
+                metrics.queued(frames.size());
+                if (sending) return;
+                sending = true;
+            }
+        }
+        if (full) disconnect();
+        else sendNext();
+    }
+
+
+    /**
+     * Stops sending, throwing away any frames still waiting
+     */
+    synchronized void close() {
+        closed = true;
+        metrics.dequeued(frames.size());
+        metrics.dropped(frames.size());
+        frames.clear();
+    }
+
+
+    private void sendNext() {
+        Frame frame;
+        synchronized (this) {
+            frame = frames.poll();
+            if (frame == null) {
+                sending = false;
+                return;
+            }
+            metrics.dequeued(1);
+        }
+        if (!session.isOpen()) {
+            metrics.dropped(1);
+            close();
+            return;
+        }
+
+        //If the write finishes straight away the callback sends the next frame from in here, which the capacity bounds
+        try {
+            frame.sendTo(session.getRemote(), sendNext);
+        } catch (RuntimeException e) {
+            sendNext.writeFailed(e);
+        }
+    }
+
+
+    private boolean dropOldestGame() {
+        if (policy != ConnectionManager.SlowConsumerPolicy.DROP_OLDEST_GAME) return false;
+        for (Iterator<Frame> iterator = frames.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().game()) {
+                iterator.remove();
+                metrics.dequeued(1);
+                metrics.dropped(1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private void disconnect() {
+        log.info("Disconnecting " + session.getRemoteAddress() + ", which has fallen " + capacity +
+                " messages behind");
+        close();
+        metrics.dropped(1);
+        metrics.disconnected();
+        session.close(StatusCode.POLICY_VIOLATION, "Too many messages waiting to be sent");
+    }
+
+}
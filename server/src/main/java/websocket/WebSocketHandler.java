@@ -1,23 +1,27 @@
 package websocket;
 
 import chess.ChessGame;
+import chess.LegalMoveCache;
 import chess.InvalidMoveException;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import dataAccess.DataAccess;
 import dataAccess.DataAccessException;
 import model.AuthData;
 import model.GameData;
 import org.eclipse.jetty.io.EofException;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import serialization.Serialization;
+import service.GameExecutor;
 import webSocketMessages.serverMessages.ServerMessage;
 import webSocketMessages.userCommands.UserGameCommand;
 
-import java.io.IOException;
 import java.util.Objects;
 
 @WebSocket
@@ -27,7 +31,9 @@ public class WebSocketHandler {
 
     private final ConnectionManager connectionManager = new ConnectionManager();
 
-    private final Gson gson = new Gson();
+    private final Gson gson = Serialization.getGson();
+
+    private final GameExecutor gameExecutor = GameExecutor.shared();
 
     private static final WebSocketHandler instance = new WebSocketHandler();
 
@@ -55,21 +61,50 @@ public class WebSocketHandler {
 
 
     @OnWebSocketMessage
-    public void message(Session session, String message) throws IOException {
+    public void message(Session session, String message) {
         log.debug("Received from " + session.getRemoteAddress() + ": " + message);
-        UserGameCommand command = gson.fromJson(message, UserGameCommand.class);
+        UserGameCommand command;
+        try {
+            command = gson.fromJson(message, UserGameCommand.class);
+        } catch (JsonParseException e) {
+            connectionManager.sendError(session, "Error: Invalid command: " + e.getMessage());
+            return;
+        }
 
+        if (command == null || command.getGameID() == null) {
+            connectionManager.sendError(session, "Error: Invalid gameID");
+            return;
+        }
+
+        //Checked before queueing, so unauthenticated messages never take up a place in a game's mailbox
         AuthData token;
-        GameData game;
         try {
             token = dataAccess.getAuthDAO().findAuth(command.getAuthString());
+        } catch (DataAccessException e) {
+            log.warn("DataAccessException: ", e);
+            connectionManager.sendError(session, "Error: Unknown server error occurred: " + e.getMessage());
+            return;
+        }
+        if (token == null) {
+            connectionManager.sendError(session, "Error: Invalid authtoken");
+            log.info("Error to " + session.getRemoteAddress() + ": Input was: " + message);
+            return;
+        }
 
-            if (token == null) {
-                connectionManager.sendError(session, "Error: Invalid authtoken");
-                log.info("Error to " + session.getRemoteAddress() + ": Input was: " + message);
-                return;
-            }
+        //Commands for one game run one at a time and in order, so each sees the moves made before it
+        gameExecutor.execute(command.getGameID(), () -> handle(session, command, token, message));
+    }
 
+
+    @OnWebSocketClose
+    public void close(Session session, int statusCode, String reason) {
+        connectionManager.removeSession(session);
+    }
+
+
+    private void handle(Session session, UserGameCommand command, AuthData token, String message) {
+        GameData game;
+        try {
             game = dataAccess.getGameDAO().findGame(command.getGameID());
 
             if (game == null) {
@@ -88,7 +123,7 @@ public class WebSocketHandler {
 
         switch (command.getCommandType()) {
             case JOIN_PLAYER -> joinPlayer(session, command, token.username(), game);
-            case JOIN_OBSERVER -> joinObserver(session, token.username(), game);
+            case JOIN_OBSERVER -> joinObserver(session, command, token.username(), game);
             case MAKE_MOVE -> makeMove(session, command, token.username(), game);
             case LEAVE -> leave(session, token.username(), game);
             case RESIGN -> resign(session, token.username(), game);
@@ -96,23 +131,18 @@ public class WebSocketHandler {
     }
 
 
-    private void joinObserver(Session session, String username, GameData game) throws IOException {
-        connectionManager.addSession(game.gameID(), session);
-
-        ServerMessage loadGame = new ServerMessage(game.game());
-        String loadGameJson = gson.toJson(loadGame);
-        connectionManager.sendMessage(session, loadGameJson);
+    private void joinObserver(Session session, UserGameCommand command, String username, GameData game) {
+        connectionManager.addSession(game.gameID(), session, command.getCapabilities());
+        connectionManager.sendGame(session, game.game());
 
         ServerMessage notify = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
                 "User " + username + " is now watching the game");
-        String notifyJson = gson.toJson(notify);
 
-        connectionManager.broadcast(notifyJson, game.gameID(), session);
+        connectionManager.broadcast(notify, game.gameID(), session);
     }
 
 
-    private void joinPlayer(Session session, UserGameCommand command, String username, GameData game)
-            throws IOException {
+    private void joinPlayer(Session session, UserGameCommand command, String username, GameData game) {
         boolean correctPlayer = false;
         if (command.getPlayerColor() == ChessGame.TeamColor.WHITE) {
             correctPlayer = Objects.equals(game.whiteUsername(), username);
@@ -125,34 +155,29 @@ public class WebSocketHandler {
             return;
         }
 
-        connectionManager.addSession(game.gameID(), session);
-
-        ServerMessage loadGame = new ServerMessage(game.game());
-        String loadGameJson = gson.toJson(loadGame);
-        connectionManager.sendMessage(session, loadGameJson);
+        connectionManager.addSession(game.gameID(), session, command.getCapabilities());
+        connectionManager.sendGame(session, game.game());
 
         ServerMessage notify = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
                 "User " + username + " joined playing color " +
                         ((command.getPlayerColor() == ChessGame.TeamColor.WHITE) ? "white" : "black") + ".");
-        String notifyJson = gson.toJson(notify);
 
-        connectionManager.broadcast(notifyJson, game.gameID(), session);
+        connectionManager.broadcast(notify, game.gameID(), session);
     }
 
 
-    private void leave(Session session, String username, GameData game) throws IOException {
+    private void leave(Session session, String username, GameData game) {
         connectionManager.removeSession(game.gameID(), session);
 
         ServerMessage notify = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, "User " + username +
                 ((Objects.equals(username, game.blackUsername()) || Objects.equals(username, game.whiteUsername())) ?
                         " has left the game" : " is no longer watching"));
-        String notifyJson = gson.toJson(notify);
 
-        connectionManager.broadcast(notifyJson, game.gameID(), session);
+        connectionManager.broadcast(notify, game.gameID(), session);
     }
 
 
-    private void makeMove(Session session, UserGameCommand command, String username, GameData game) throws IOException {
+    private void makeMove(Session session, UserGameCommand command, String username, GameData game) {
         if(command.getMove() == null) {
             connectionManager.sendError(session, "Error: Must include a move");
             return;
@@ -184,16 +209,19 @@ public class WebSocketHandler {
         }
 
 
-        String ending = "";
-        if (chessGame.isInCheckmate(chessGame.getTeamTurn())) {
-            ending = "Checkmate. " + username + " wins!";
-            chessGame.setActive(false);
-        } else if (chessGame.isInStalemate(chessGame.getTeamTurn())) {
-            ending = "The game ends in a stalemate.";
-            chessGame.setActive(false);
-        } else if (chessGame.isInCheck(chessGame.getTeamTurn())) {
-            ending = "Check.";
-        }
+        ChessGame.GameStatus status = chessGame.evaluateStatus();
+        String ending = switch (status) {
+            case NORMAL -> "";
+            case CHECK -> "Check.";
+            case CHECKMATE -> "Checkmate. " + username + " wins!";
+            case STALEMATE -> "The game ends in a stalemate.";
+            case INSUFFICIENT_MATERIAL -> "The game ends in a draw, as neither side can checkmate.";
+            case FIFTY_MOVE_RULE ->
+                    "The game ends in a draw, as fifty moves have passed without a capture or pawn move.";
+            case THREEFOLD_REPETITION -> "The game ends in a draw, as the same position has come up three times.";
+        };
+        if (status.isOver()) chessGame.setActive(false);
+        log.debug("{}", LegalMoveCache.shared());
 
         try {
             dataAccess.getGameDAO().updateGame(game);
@@ -202,19 +230,14 @@ public class WebSocketHandler {
             return;
         }
 
-        ServerMessage loadGame = new ServerMessage(game.game());
         ServerMessage notify = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
                 username + " makes move " + command.getMove() + ' ' + ending);
-
-        String loadGameJson = gson.toJson(loadGame);
-        String notifyJson = gson.toJson(notify);
-
-        connectionManager.broadcast(loadGameJson, game.gameID(), null);
-        connectionManager.broadcast(notifyJson, game.gameID(), session);
+        connectionManager.broadcastMove(game.game(), notify, game.gameID(), session);
+        log.debug("{}", connectionManager.getMetrics());
     }
 
 
-    private void resign(Session session, String username, GameData game) throws IOException {
+    private void resign(Session session, String username, GameData game) {
         if (!game.game().isActive()) {
             connectionManager.sendError(session, "Error: GameData is already over");
             return;
@@ -240,16 +263,11 @@ public class WebSocketHandler {
 
         ServerMessage notify = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
                 username + " has resigned." + ((opponent != null) ? " " + opponent + " wins!" : ""));
-
-        String notifyJson = gson.toJson(notify);
-
-        connectionManager.broadcast(notifyJson, game.gameID(), session);
+        connectionManager.broadcast(notify, game.gameID(), session);
 
 
         notify = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, "You have resigned.");
-        notifyJson = gson.toJson(notify);
-
-        connectionManager.sendMessage(session, notifyJson);
+        connectionManager.sendMessage(session, notify);
     }
 
     public void clear() {
@@ -127,4 +127,17 @@ public class GameDAOTests {
         Assertions.assertNotNull(found);
         Assertions.assertEquals(toUpdate, found);
     }
+
+    @Test
+    public void updateKeepsFullPosition() throws DataAccessException {
+        GameData insGameOne = gameDAO.insertGame(gameOne);
+
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 4 23");
+        game.setActive(false);
+        gameDAO.updateGame(new GameData(insGameOne.gameID(), null, null, insGameOne.gameName(), game));
+
+        GameData found = gameDAO.findGame(insGameOne.gameID());
+        Assertions.assertEquals(game.toFen(), found.game().toFen());
+        Assertions.assertFalse(found.game().isActive());
+    }
 }
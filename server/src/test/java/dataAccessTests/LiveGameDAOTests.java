@@ -0,0 +1,246 @@
+package dataAccessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataAccess.DataAccessException;
+import dataAccess.live.LiveGameDAO;
+import dataAccess.memory.MemoryGameDAO;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LiveGameDAOTests {
+
+    private static final ChessMove[] MOVES = {
+            ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6)),
+            ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6)),
+            ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7)),
+            ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7)),
+    };
+
+
+    /**
+     * In-memory games that remember every game written to them
+     */
+    private static class RecordingGameDAO extends MemoryGameDAO {
+
+        private final List<GameData> writes = new ArrayList<>();
+
+        private int failuresLeft;
+
+
+        @Override
+        public synchronized GameData findGame(int gameID) throws DataAccessException {
+            return super.findGame(gameID);
+        }
+
+        @Override
+        public synchronized GameData insertGame(GameData game) throws DataAccessException {
+            return super.insertGame(game);
+        }
+
+        @Override
+        public synchronized void updateGame(GameData game) throws DataAccessException {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new DataAccessException("Database unavailable");
+            }
+            super.updateGame(game);
+            writes.add(game);
+        }
+
+        synchronized int writeCount() {
+            return writes.size();
+        }
+
+        synchronized GameData lastWrite() {
+            return writes.get(writes.size() - 1);
+        }
+    }
+
+
+    private static GameData playMove(LiveGameDAO dao, int gameID, int ply) throws Exception {
+        GameData game = dao.findGame(gameID);
+        game.game().makeMove(MOVES[ply % MOVES.length]);
+        dao.updateGame(game);
+        return game;
+    }
+
+
+    private static GameData listed(LiveGameDAO dao) throws DataAccessException {
+        return dao.findAllGames().iterator().next();
+    }
+
+
+    private static void awaitWrites(RecordingGameDAO backing, int writes) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (backing.writeCount() < writes && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assertions.assertEquals(writes, backing.writeCount());
+    }
+
+
+    @Test
+    public void movesAreCoalesced() throws Exception {
+        RecordingGameDAO backing = new RecordingGameDAO();
+        int gameID = backing.insertGame(new GameData(0, "white", "black", "game", new ChessGame())).gameID();
+        try (LiveGameDAO dao = new LiveGameDAO(backing, 60_000, 3)) {
+            playMove(dao, gameID, 0);
+            playMove(dao, gameID, 1);
+            Thread.sleep(50);
+            Assertions.assertEquals(0, backing.writeCount());
+            Assertions.assertEquals(1, dao.pendingGames());
+
+            //The third move reaches the bound, and all three go out in one write
+            GameData game = playMove(dao, gameID, 2);
+            awaitWrites(backing, 1);
+            Assertions.assertEquals(game.game().toFen(), backing.lastWrite().game().toFen());
+            Assertions.assertEquals(0, dao.pendingGames());
+        }
+    }
+
+
+    @Test
+    public void writesWithinDelay() throws Exception {
+        RecordingGameDAO backing = new RecordingGameDAO();
+        int gameID = backing.insertGame(new GameData(0, "white", "black", "game", new ChessGame())).gameID();
+        try (LiveGameDAO dao = new LiveGameDAO(backing, 20, 100)) {
+            GameData game = playMove(dao, gameID, 0);
+            awaitWrites(backing, 1);
+            Assertions.assertEquals(game.game().toFen(), backing.lastWrite().game().toFen());
+        }
+    }
+
+
+    @Test
+    public void readsSeeUnwrittenMoves() throws Exception {
+        RecordingGameDAO backing = new RecordingGameDAO();
+        int gameID = backing.insertGame(new GameData(0, "white", "black", "game", new ChessGame())).gameID();
+        try (LiveGameDAO dao = new LiveGameDAO(backing, 60_000, 100)) {
+            GameData game = playMove(dao, gameID, 0);
+            Assertions.assertSame(game, dao.findGame(gameID));
+            Assertions.assertEquals(game, dao.findAllGames().iterator().next());
+            Assertions.assertEquals(ChessGame.TeamColor.BLACK, dao.findGame(gameID).game().getTeamTurn());
+            Assertions.assertEquals(0, backing.writeCount());
+        }
+    }
+
+
+    @Test
+    public void listedGamesAreSnapshots() throws Exception {
+        RecordingGameDAO backing = new RecordingGameDAO();
+        int gameID = backing.insertGame(new GameData(0, "white", "black", "game", new ChessGame())).gameID();
+        try (LiveGameDAO dao = new LiveGameDAO(backing, 60_000, 100)) {
+            GameData game = playMove(dao, gameID, 0);
+            GameData listed = listed(dao);
+            Assertions.assertNotSame(game, listed);
+
+            //A move still being made doesn't show until the game is updated
+            game.game().makeMove(MOVES[1]);
+            Assertions.assertEquals(ChessGame.TeamColor.BLACK, listed(dao).game().getTeamTurn());
+            dao.updateGame(game);
+            Assertions.assertEquals(ChessGame.TeamColor.WHITE, listed(dao).game().getTeamTurn());
+
+            //An ended game that hasn't been written yet is listed as ended
+            game.game().setActive(false);
+            dao.updateGame(game);
+            Assertions.assertFalse(listed(dao).game().isActive());
+            Assertions.assertEquals(0, backing.writeCount());
+        }
+    }
+
+
+    @Test
+    public void closeWritesPendingGames() throws Exception {
+        RecordingGameDAO backing = new RecordingGameDAO();
+        int first = backing.insertGame(new GameData(0, "white", "black", "first", new ChessGame())).gameID();
+        int second = backing.insertGame(new GameData(0, "white", "black", "second", new ChessGame())).gameID();
+        LiveGameDAO dao = new LiveGameDAO(backing, 60_000, 100);
+        for (int ply = 0; ply < 3; ply++) {
+            playMove(dao, first, ply);
+            playMove(dao, second, ply);
+        }
+        dao.close();
+
+        Assertions.assertEquals(2, backing.writeCount());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, backing.findGame(first).game().getTeamTurn());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, backing.findGame(second).game().getTeamTurn());
+
+        //Once closed, updates are written straight through
+        dao.updateGame(backing.findGame(first));
+        Assertions.assertEquals(3, backing.writeCount());
+    }
+
+
+    @Test
+    public void failedWritesAreRetried() throws Exception {
+        RecordingGameDAO backing = new RecordingGameDAO();
+        int gameID = backing.insertGame(new GameData(0, "white", "black", "game", new ChessGame())).gameID();
+        backing.failuresLeft = 2;
+        try (LiveGameDAO dao = new LiveGameDAO(backing, 10, 100)) {
+            GameData game = playMove(dao, gameID, 0);
+            awaitWrites(backing, 1);
+            Assertions.assertEquals(game.game().toFen(), backing.lastWrite().game().toFen());
+        }
+    }
+
+
+    @Test
+    public void endedGamesLeaveMemory() throws Exception {
+        RecordingGameDAO backing = new RecordingGameDAO();
+        int gameID = backing.insertGame(new GameData(0, "white", "black", "game", new ChessGame())).gameID();
+        try (LiveGameDAO dao = new LiveGameDAO(backing, 60_000, 100)) {
+            GameData game = playMove(dao, gameID, 0);
+            game.game().setActive(false);
+            dao.updateGame(game);
+            dao.flush();
+
+            Assertions.assertEquals(1, backing.writeCount());
+            GameData stored = dao.findGame(gameID);
+            Assertions.assertNotSame(game, stored);
+            Assertions.assertFalse(stored.game().isActive());
+        }
+    }
+
+
+    @Test
+    public void clearDropsPendingWrites() throws Exception {
+        RecordingGameDAO backing = new RecordingGameDAO();
+        int gameID = backing.insertGame(new GameData(0, "white", "black", "game", new ChessGame())).gameID();
+        try (LiveGameDAO dao = new LiveGameDAO(backing, 60_000, 100)) {
+            playMove(dao, gameID, 0);
+            dao.clear();
+            Assertions.assertEquals(0, dao.pendingGames());
+            Assertions.assertNull(dao.findGame(gameID));
+        }
+    }
+
+
+    @Test
+    public void idleGamesLeaveMemory() throws Exception {
+        RecordingGameDAO backing = new RecordingGameDAO();
+        int gameID = backing.insertGame(new GameData(0, "white", "black", "game", new ChessGame())).gameID();
+        try (LiveGameDAO dao = new LiveGameDAO(backing, 60_000, 100, 20)) {
+            GameData game = playMove(dao, gameID, 0);
+            //Not while it still has a move to write
+            Thread.sleep(100);
+            Assertions.assertEquals(1, dao.liveGames());
+            Assertions.assertSame(game, dao.findGame(gameID));
+
+            dao.flush();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (dao.liveGames() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+            Assertions.assertEquals(0, dao.liveGames());
+
+            GameData reloaded = dao.findGame(gameID);
+            Assertions.assertNotSame(game, reloaded);
+            Assertions.assertEquals(game.game().toFen(), reloaded.game().toFen());
+        }
+    }
+
+}
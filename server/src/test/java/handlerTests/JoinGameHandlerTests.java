@@ -0,0 +1,86 @@
+package handlerTests;
+
+import chess.ChessGame;
+import dataAccess.memory.MemoryDataAccess;
+import model.AuthData;
+import model.GameData;
+import model.JoinGameRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import serialization.Serialization;
+import server.Server;
+import service.GameExecutor;
+import spark.Spark;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+
+public class JoinGameHandlerTests {
+
+    private final MemoryDataAccess dataAccess = new MemoryDataAccess();
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    private Server server;
+
+    private URI uri;
+
+
+    @BeforeEach
+    public void setup() {
+        server = new Server();
+        uri = URI.create("http://localhost:" + server.run(0, dataAccess) + "/game");
+    }
+
+
+    @AfterEach
+    public void stopServer() {
+        server.stop();
+        Spark.awaitStop();
+    }
+
+
+    @Test
+    public void busyGameIsRetryable() throws Exception {
+        int gameID = dataAccess.getGameDAO().insertGame(new GameData(0, null, null, "Busy Game", new ChessGame()))
+                .gameID();
+        dataAccess.getAuthDAO().insertAuth(new AuthData("busyAuth", "sheila"));
+
+        //Hold the game's mailbox for longer than a join waits
+        CountDownLatch release = new CountDownLatch(1);
+        GameExecutor.shared().execute(gameID, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        HttpResponse<String> response;
+        try {
+            response = join(gameID, "busyAuth");
+        } finally {
+            release.countDown();
+        }
+        Assertions.assertEquals(HttpURLConnection.HTTP_UNAVAILABLE, response.statusCode());
+        Assertions.assertTrue(response.body().contains("busy"), response.body());
+
+        //Trying again once the game is free works
+        Assertions.assertEquals(HttpURLConnection.HTTP_OK, join(gameID, "busyAuth").statusCode());
+        Assertions.assertEquals("sheila", dataAccess.getGameDAO().findGame(gameID).whiteUsername());
+    }
+
+
+    private HttpResponse<String> join(int gameID, String authToken) throws Exception {
+        String body = Serialization.getGson().toJson(new JoinGameRequest(ChessGame.TeamColor.WHITE, gameID));
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", authToken)
+                .PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+}
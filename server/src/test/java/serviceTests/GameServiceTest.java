@@ -11,6 +11,8 @@ import service.*;
 import dataAccessTests.TestFactory;
 
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class GameServiceTest {
 
@@ -180,4 +182,34 @@ public class GameServiceTest {
 
     }
 
+
+    @Test
+    public void joinGameBusy() throws Exception {
+        GameData game = gameDAO.insertGame(new GameData(0, null, null, "Busy Game", new ChessGame()));
+        AuthData token = new AuthData("totallyRandomAuth", "sheila");
+        authDAO.insertAuth(token);
+
+        //Hold the game's mailbox for longer than a join waits
+        CountDownLatch release = new CountDownLatch(1);
+        GameExecutor.shared().execute(game.gameID(), () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            JoinGameRequest request = new JoinGameRequest(ChessGame.TeamColor.WHITE, game.gameID());
+            GameBusyException e = Assertions.assertThrows(GameBusyException.class,
+                    () -> new GameService(dataAccess).joinGame(request, token.authToken()));
+            Assertions.assertTrue(e.getMessage().contains("busy"));
+        } finally {
+            release.countDown();
+        }
+
+        //The abandoned claim doesn't happen once the game is free
+        GameExecutor.shared().submit(game.gameID(), () -> null).get(10, TimeUnit.SECONDS);
+        Assertions.assertNull(gameDAO.findGame(game.gameID()).whiteUsername());
+    }
+
 }
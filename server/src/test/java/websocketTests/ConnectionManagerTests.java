@@ -0,0 +1,265 @@
+package websocketTests;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import com.google.gson.Gson;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import serialization.Serialization;
+import webSocketMessages.serverMessages.ServerMessage;
+import webSocketMessages.userCommands.UserGameCommand;
+import websocket.ConnectionManager;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+public class ConnectionManagerTests {
+
+    /**
+     * A session whose writes only finish when the test says so, like a client on a slow connection
+     */
+    private static class FakeSession {
+
+        final List<String> received = new ArrayList<>();
+
+        final List<ByteBuffer> receivedBinary = new ArrayList<>();
+
+        final List<WriteCallback> unfinished = new ArrayList<>();
+
+        boolean open = true;
+
+        int closeStatus;
+
+        final boolean slow;
+
+        final Session session;
+
+
+        FakeSession(boolean slow) {
+            this.slow = slow;
+            RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("sendString") && args.length == 2) {
+                            received.add((String) args[0]);
+                        } else if (method.getName().equals("sendBytes") && args.length == 2) {
+                            receivedBinary.add((ByteBuffer) args[0]);
+                        } else {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        WriteCallback callback = (WriteCallback) args[1];
+                        if (slow) unfinished.add(callback);
+                        else callback.writeSuccess();
+                        return null;
+                    });
+            session = (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Session.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getRemote" -> remote;
+                        case "isOpen" -> open;
+                        case "getRemoteAddress" -> null;
+                        case "close" -> {
+                            open = false;
+                            closeStatus = (int) args[0];
+                            yield null;
+                        }
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> "FakeSession";
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+
+        /**
+         * Finishes every write started so far, which starts the next waiting one
+         */
+        void catchUp() {
+            while (!unfinished.isEmpty()) unfinished.remove(0).writeSuccess();
+        }
+
+
+        long games() {
+            return received.stream().filter(message -> message.contains("LOAD_GAME")).count();
+        }
+
+
+        List<String> notifications() {
+            return received.stream().filter(message -> message.contains("NOTIFICATION"))
+                    .map(message -> gson.fromJson(message, ServerMessage.class).getMessage()).toList();
+        }
+    }
+
+
+    private static final Gson gson = Serialization.getGson();
+
+
+    private static ServerMessage notification(String message) {
+        return new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, message);
+    }
+
+
+    @Test
+    public void slowSessionDoesntHoldUpOthers() {
+        ConnectionManager manager = new ConnectionManager(16, ConnectionManager.SlowConsumerPolicy.DISCONNECT);
+        FakeSession slow = new FakeSession(true);
+        FakeSession fast = new FakeSession(false);
+        manager.addSession(1, slow.session);
+        manager.addSession(1, fast.session);
+
+        for (int i = 0; i < 5; i++) manager.broadcast(notification("message " + i), 1, null);
+
+        Assertions.assertEquals(List.of("message 0", "message 1", "message 2", "message 3", "message 4"),
+                fast.notifications());
+        //Only one write is started at a time, and the rest wait their turn
+        Assertions.assertEquals(List.of("message 0"), slow.notifications());
+        Assertions.assertEquals(4, manager.getMetrics().getQueuedFrames());
+
+        slow.catchUp();
+        Assertions.assertEquals(fast.received, slow.received);
+        Assertions.assertEquals(0, manager.getMetrics().getQueuedFrames());
+        Assertions.assertEquals(10, manager.getMetrics().getSentFrames());
+    }
+
+
+    @Test
+    public void fullQueueDropsOldestGame() {
+        ConnectionManager manager = new ConnectionManager(3, ConnectionManager.SlowConsumerPolicy.DROP_OLDEST_GAME);
+        FakeSession slow = new FakeSession(true);
+        manager.addSession(1, slow.session);
+        ChessGame game = new ChessGame();
+
+        manager.broadcast(notification("sending"), 1, null);
+        manager.broadcastGame(game, 1, null);
+        manager.broadcast(notification("first move"), 1, null);
+        manager.broadcastGame(game, 1, null);
+        manager.broadcast(notification("second move"), 1, null);
+
+        Assertions.assertTrue(slow.open);
+        Assertions.assertEquals(1, manager.getMetrics().getDroppedFrames());
+        Assertions.assertEquals(3, manager.getMetrics().getMaxQueueDepth());
+        slow.catchUp();
+        Assertions.assertEquals(5 - 1, slow.received.size());
+        Assertions.assertEquals(1, slow.games());
+        Assertions.assertEquals(List.of("sending", "first move", "second move"), slow.notifications());
+        Assertions.assertTrue(slow.received.get(2).contains("LOAD_GAME"));
+    }
+
+
+    @Test
+    public void fullQueueWithoutGamesDisconnects() {
+        ConnectionManager manager = new ConnectionManager(2, ConnectionManager.SlowConsumerPolicy.DROP_OLDEST_GAME);
+        FakeSession slow = new FakeSession(true);
+        manager.addSession(1, slow.session);
+
+        for (int i = 0; i < 4; i++) manager.broadcast(notification("message " + i), 1, null);
+
+        Assertions.assertFalse(slow.open);
+        Assertions.assertEquals(StatusCode.POLICY_VIOLATION, slow.closeStatus);
+        Assertions.assertEquals(1, manager.getMetrics().getDisconnectedSessions());
+        Assertions.assertEquals(3, manager.getMetrics().getDroppedFrames());
+        Assertions.assertEquals(0, manager.getMetrics().getQueuedFrames());
+    }
+
+
+    @Test
+    public void disconnectPolicyKeepsGames() {
+        ConnectionManager manager = new ConnectionManager(2, ConnectionManager.SlowConsumerPolicy.DISCONNECT);
+        FakeSession slow = new FakeSession(true);
+        FakeSession fast = new FakeSession(false);
+        manager.addSession(1, slow.session);
+        manager.addSession(1, fast.session);
+        ChessGame game = new ChessGame();
+
+        for (int i = 0; i < 4; i++) manager.broadcastGame(game, 1, null);
+
+        Assertions.assertFalse(slow.open);
+        Assertions.assertTrue(fast.open);
+        Assertions.assertEquals(4, fast.games());
+
+        //Nothing more is sent to a disconnected session
+        slow.catchUp();
+        manager.broadcastGame(game, 1, null);
+        Assertions.assertEquals(1, slow.received.size());
+        Assertions.assertEquals(5, fast.games());
+    }
+
+
+    @Test
+    public void removedSessionsStopSending() {
+        ConnectionManager manager = new ConnectionManager(16, ConnectionManager.SlowConsumerPolicy.DISCONNECT);
+        FakeSession slow = new FakeSession(true);
+        manager.addSession(1, slow.session);
+        manager.addSession(2, slow.session);
+        for (int i = 0; i < 3; i++) manager.broadcast(notification("message " + i), 1, null);
+
+        manager.removeSession(slow.session);
+        slow.catchUp();
+        manager.broadcast(notification("after"), 2, null);
+
+        Assertions.assertEquals(List.of("message 0"), slow.notifications());
+        Assertions.assertEquals(2, manager.getMetrics().getDroppedFrames());
+        Assertions.assertEquals(0, manager.getMetrics().getQueuedFrames());
+    }
+
+
+    @Test
+    public void broadcastToEmptyGame() {
+        ConnectionManager manager = new ConnectionManager(16, ConnectionManager.SlowConsumerPolicy.DISCONNECT);
+        FakeSession other = new FakeSession(false);
+        manager.addSession(1, other.session);
+
+        Assertions.assertDoesNotThrow(() -> {
+            manager.broadcast(notification("nobody here"), 2, null);
+            manager.broadcastGame(new ChessGame(), 2, null);
+            manager.broadcastMove(new ChessGame(), notification("nobody here"), 2, null);
+            manager.removeSession(2, other.session);
+        });
+        Assertions.assertTrue(other.received.isEmpty());
+    }
+
+
+    @Test
+    public void movesAreBatchedForClientsThatAskForIt() {
+        ConnectionManager manager = new ConnectionManager(16, ConnectionManager.SlowConsumerPolicy.DISCONNECT);
+        FakeSession mover = new FakeSession(false);
+        FakeSession plain = new FakeSession(false);
+        FakeSession batched = new FakeSession(false);
+        FakeSession batchedBinary = new FakeSession(false);
+        manager.addSession(1, mover.session, EnumSet.of(UserGameCommand.Capability.BATCHED_MOVES));
+        manager.addSession(1, plain.session);
+        manager.addSession(1, batched.session, EnumSet.of(UserGameCommand.Capability.BATCHED_MOVES));
+        manager.addSession(1, batchedBinary.session, EnumSet.of(UserGameCommand.Capability.BATCHED_MOVES,
+                UserGameCommand.Capability.BINARY_GAME));
+        ChessGame game = new ChessGame();
+
+        manager.broadcastMove(game, notification("white moves"), 1, mover.session);
+
+        //The mover only gets the game, and clients that didn't ask for batches get two messages as before
+        Assertions.assertEquals(1, mover.received.size());
+        Assertions.assertEquals(1, mover.games());
+        Assertions.assertEquals(2, plain.received.size());
+        Assertions.assertEquals(1, plain.games());
+        Assertions.assertEquals(List.of("white moves"), plain.notifications());
+
+        Assertions.assertEquals(1, batched.received.size());
+        ServerMessage[] batch = gson.fromJson(batched.received.get(0), ServerMessage[].class);
+        Assertions.assertEquals(ServerMessage.ServerMessageType.LOAD_GAME, batch[0].getServerMessageType());
+        Assertions.assertEquals(game.toFen(), batch[0].getGame().toFen());
+        Assertions.assertEquals("white moves", batch[1].getMessage());
+
+        Assertions.assertTrue(batchedBinary.received.isEmpty());
+        Assertions.assertEquals(1, batchedBinary.receivedBinary.size());
+        ByteBuffer frame = batchedBinary.receivedBinary.get(0);
+        Assertions.assertEquals(game.toFen(), GameCodec.decode(frame).toFen());
+        ServerMessage trailing = gson.fromJson(StandardCharsets.UTF_8.decode(frame).toString(), ServerMessage.class);
+        Assertions.assertEquals("white moves", trailing.getMessage());
+    }
+
+}
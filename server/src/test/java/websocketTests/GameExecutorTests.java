@@ -0,0 +1,208 @@
+package websocketTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataAccess.DataAccessException;
+import dataAccess.memory.MemoryGameDAO;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import service.GameExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameExecutorTests {
+
+    private static final ChessMove[] MOVES = {
+            ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6)),
+            ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6)),
+            ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7)),
+            ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7)),
+    };
+
+
+    /**
+     * Hands out and stores copies of games, as the MySQL DAO does, so unserialized moves would overwrite each other
+     */
+    private static class CopyingGameDAO extends MemoryGameDAO {
+
+        @Override
+        public synchronized GameData findGame(int gameID) throws DataAccessException {
+            return copy(super.findGame(gameID));
+        }
+
+        @Override
+        public synchronized GameData insertGame(GameData game) throws DataAccessException {
+            return super.insertGame(game);
+        }
+
+        @Override
+        public synchronized void updateGame(GameData game) throws DataAccessException {
+            super.updateGame(copy(game));
+        }
+
+        private static GameData copy(GameData game) {
+            return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                    new ChessGame(game.game()));
+        }
+    }
+
+
+    /**
+     * Loads a game, makes the next move of a knight shuffle, and stores it, as the WebSocket handler's move command does
+     */
+    private static void makeNextMove(CopyingGameDAO dao, int gameID) throws Exception {
+        GameData game = dao.findGame(gameID);
+        ChessGame chessGame = game.game();
+        int ply = (chessGame.getFullmoveNumber() - 1) * 2 + chessGame.getTeamTurn().ordinal();
+        //Give other threads a chance to interleave between the read and the write
+        Thread.yield();
+        chessGame.makeMove(MOVES[ply % MOVES.length]);
+        dao.updateGame(game);
+    }
+
+
+    @Test
+    public void noLostMoves() throws Exception {
+        int games = 4;
+        int movesPerGame = 400;
+        int submitters = 8;
+
+        CopyingGameDAO dao = new CopyingGameDAO();
+        List<Integer> gameIDs = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            gameIDs.add(dao.insertGame(new GameData(0, "white", "black", "game" + i, new ChessGame())).gameID());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ExecutorService clients = Executors.newFixedThreadPool(submitters);
+        try {
+            GameExecutor executor = new GameExecutor(pool);
+            List<CompletableFuture<Void>> results = new CopyOnWriteArrayList<>();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> submitted = new ArrayList<>();
+            for (int client = 0; client < submitters; client++) {
+                submitted.add(clients.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < games * movesPerGame / submitters; i++) {
+                        int gameID = gameIDs.get(i % games);
+                        results.add(executor.submit(gameID, () -> {
+                            makeNextMove(dao, gameID);
+                            return null;
+                        }));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : submitted) future.get(30, TimeUnit.SECONDS);
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+            for (int gameID : gameIDs) {
+                ChessGame game = dao.findGame(gameID).game();
+                Assertions.assertEquals(movesPerGame, game.getHalfmoveClock(), "Moves were lost in game " + gameID);
+            }
+        } finally {
+            pool.shutdownNow();
+            clients.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void eachGameRunsOneTaskAtATime() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            GameExecutor executor = new GameExecutor(pool);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger mostRunning = new AtomicInteger();
+            List<Integer> order = new CopyOnWriteArrayList<>();
+            List<CompletableFuture<Void>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int task = i;
+                results.add(executor.submit(7, () -> {
+                    mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    order.add(task);
+                    running.decrementAndGet();
+                    return null;
+                }));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(1, mostRunning.get());
+            for (int i = 0; i < order.size(); i++) Assertions.assertEquals(i, order.get(i));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void gamesRunInParallel() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            GameExecutor executor = new GameExecutor(pool);
+            //Each game's task waits for the other's, which only finishes if both are running at once
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            CompletableFuture<Integer> first = executor.submit(1, () -> barrier.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Integer> second = executor.submit(2, () -> barrier.await(5, TimeUnit.SECONDS));
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void failuresDontStopTheQueue() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(1);
+        try {
+            GameExecutor executor = new GameExecutor(pool);
+            executor.execute(3, () -> {
+                throw new IllegalStateException("Task failed");
+            });
+            CompletableFuture<String> failed = executor.submit(3, () -> {
+                throw new DataAccessException("No database");
+            });
+            CompletableFuture<String> after = executor.submit(3, () -> "ran");
+
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                    () -> failed.get(10, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(DataAccessException.class, e.getCause());
+            Assertions.assertEquals("ran", after.get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void idleMailboxesAreRemoved() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            GameExecutor executor = new GameExecutor(pool);
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                int gameID = i;
+                results.add(executor.submit(gameID, () -> gameID));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+            //Each mailbox is removed just after its last task completes
+            long deadline = System.currentTimeMillis() + 5000;
+            while (executor.activeGames() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+            Assertions.assertEquals(0, executor.activeGames());
+
+            //A game's mailbox comes back when it has work again
+            Assertions.assertEquals("again", executor.submit(5, () -> "again").get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+}
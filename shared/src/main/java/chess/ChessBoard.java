@@ -1,20 +1,48 @@
 package chess;
 
+import chess.ruleset.piece.AttackTables;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * Internally the board is a set of bitboards: one {@code long} per piece type and color, where bit
+ * {@code (row - 1) * 8 + (column - 1)} is set if that piece is on that square, plus one occupancy mask per color.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
 public class ChessBoard {
 
-    private final ChessPiece[][] board;
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                PIECES[pieceIndex(color, type)] = ChessPiece.of(color, type);
+            }
+        }
+    }
+
+    //Indexed by PieceType ordinal: king, queen, bishop, knight, rook, pawn
+    private static final int[] MATERIAL_VALUES = {0, 9, 3, 3, 5, 1};
+
+    private final long[] pieces;
+
+    private final long[] teams;
+
+    private final int[] material;
+
+    private long key;
 
 
     public ChessBoard() {
-        board = new ChessPiece[8][8];
+        pieces = new long[12];
+        teams = new long[2];
+        material = new int[2];
     }
 
 
@@ -24,10 +52,21 @@ public class ChessBoard {
      * @param copy ChessBoard to copy the pieces of
      */
     public ChessBoard(ChessBoard copy) {
-        board = new ChessPiece[8][8];
-        for (int i = 0; i < 8; i++) {
-            board[i] = Arrays.copyOf(copy.board[i], 8);
-        }
+        pieces = copy.pieces.clone();
+        teams = copy.teams.clone();
+        material = copy.material.clone();
+        key = copy.key;
+    }
+
+
+    /**
+     * Sets this board's pieces to match another's, without allocating
+     */
+    void copyFrom(ChessBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.teams, 0, teams, 0, teams.length);
+        System.arraycopy(other.material, 0, material, 0, material.length);
+        key = other.key;
     }
 
 
@@ -38,7 +77,48 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow() - 1][position.getColumn() - 1] = piece;
+        addPiece(square(position), piece);
+    }
+
+
+    /**
+     * Adds a chess piece to the chessboard
+     *
+     * @param square square index (0 for a1, 63 for h8) to add the piece to
+     * @param piece  the piece to add, or null to empty the square
+     */
+    public void addPiece(int square, ChessPiece piece) {
+        long bit = 1L << square;
+        int color = ((teams[0] & bit) != 0) ? 0 : ((teams[1] & bit) != 0) ? 1 : -1;
+        if (color != -1) {
+            for (int i = color * 6; i < color * 6 + 6; i++) {
+                if ((pieces[i] & bit) != 0) {
+                    pieces[i] &= ~bit;
+                    material[color] -= MATERIAL_VALUES[i - color * 6];
+                    key ^= Zobrist.piece(i, square);
+                    break;
+                }
+            }
+            teams[color] &= ~bit;
+        }
+        if (piece != null) {
+            int team = piece.getTeamColor().ordinal();
+            int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+            pieces[index] |= bit;
+            teams[team] |= bit;
+            material[team] += MATERIAL_VALUES[piece.getPieceType().ordinal()];
+            key ^= Zobrist.piece(index, square);
+        }
+    }
+
+
+    /**
+     * Puts a piece on a square by its index, as read back from {@link #getPieceIndex(int)}
+     *
+     * @param index piece index (color ordinal * 6 + PieceType ordinal), or -1 to empty the square
+     */
+    void addPiece(int square, int index) {
+        addPiece(square, (index == -1) ? null : PIECES[index]);
     }
 
 
@@ -50,7 +130,167 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return board[position.getRow() - 1][position.getColumn() - 1];
+        return getPiece(square(position));
+    }
+
+
+    /**
+     * Gets a chess piece on the chessboard
+     *
+     * @param square square index (0 for a1, 63 for h8) to get the piece from
+     * @return Either the piece on the square, or null if the square is empty
+     */
+    public ChessPiece getPiece(int square) {
+        int index = getPieceIndex(square);
+        return (index == -1) ? null : PIECES[index];
+    }
+
+
+    /**
+     * @param square square index (0 for a1, 63 for h8)
+     * @return index of the piece on the square (color ordinal * 6 + PieceType ordinal), or -1 if the square is empty
+     */
+    int getPieceIndex(int square) {
+        long bit = 1L << square;
+        int color;
+        if ((teams[0] & bit) != 0) color = 0;
+        else if ((teams[1] & bit) != 0) color = 1;
+        else return -1;
+
+        for (int i = color * 6; i < color * 6 + 6; i++) {
+            if ((pieces[i] & bit) != 0) return i;
+        }
+        throw new IllegalStateException("Occupancy and piece bitboards disagree at square " + square);
+    }
+
+
+    /**
+     * @return bitboard of every square holding a piece of the given color and type
+     */
+    public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[pieceIndex(color, type)];
+    }
+
+
+    /**
+     * @return bitboard of every square holding a piece of the given color
+     */
+    public long getPieces(ChessGame.TeamColor color) {
+        return teams[color.ordinal()];
+    }
+
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long getOccupied() {
+        return teams[0] | teams[1];
+    }
+
+
+    /**
+     * @param color team whose king to find
+     * @return square index (0 for a1, 63 for h8) of that team's king, or -1 if it has no king on the board
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        long king = pieces[pieceIndex(color, ChessPiece.PieceType.KING)];
+        return (king == 0) ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+
+    /**
+     * @param color team whose king to find
+     * @return position of that team's king, or null if it has no king on the board
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = getKingSquare(color);
+        return (square == -1) ? null : ChessPosition.of(square);
+    }
+
+
+    /**
+     * @param color team whose pieces to list
+     * @return the position of every piece of that team, from a1 towards h8
+     */
+    public Collection<ChessPosition> getPiecePositions(ChessGame.TeamColor color) {
+        long team = teams[color.ordinal()];
+        Collection<ChessPosition> positions = new ArrayList<>(Long.bitCount(team));
+        while (team != 0) {
+            int square = Long.numberOfTrailingZeros(team);
+            positions.add(ChessPosition.of(square));
+            team &= team - 1;
+        }
+        return positions;
+    }
+
+
+    /**
+     * Gets the material a team has on the board, counting pawns as 1, knights and bishops as 3, rooks as 5 and
+     * queens as 9. The count is kept up to date as pieces are added and removed.
+     *
+     * @param color team to count material for
+     * @return total value of that team's pieces
+     */
+    public int getMaterial(ChessGame.TeamColor color) {
+        return material[color.ordinal()];
+    }
+
+
+    /**
+     * Gets the Zobrist key of the pieces on the board. It is kept up to date as pieces are added and removed, and
+     * boards with the same pieces on the same squares always have the same key.
+     *
+     * @return 64-bit hash of the piece placement
+     * @see ChessGame#positionKey()
+     */
+    public long getKey() {
+        return key;
+    }
+
+
+    /**
+     * Determines if any piece of a team attacks a square, by looking outward from the square for knights, kings and
+     * pawns that could reach it and for the first piece along each rank, file and diagonal
+     *
+     * @param position square to check
+     * @param byColor  team doing the attacking
+     * @return True if a piece of that team attacks the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(square(position), byColor);
+    }
+
+
+    /**
+     * @param square  square index (0 for a1, 63 for h8) to check
+     * @param byColor team doing the attacking
+     * @return True if a piece of that team attacks the square
+     * @see #isSquareAttacked(ChessPosition, ChessGame.TeamColor)
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        return attackersTo(square, byColor, getOccupied()) != 0;
+    }
+
+
+    /**
+     * Finds every piece of one team attacking a square
+     *
+     * @param square   square index (0 for a1, 63 for h8) being attacked
+     * @param byColor  team doing the attacking
+     * @param occupied squares to treat as occupied when looking along lines, usually {@link #getOccupied()}
+     * @return bitboard of the attacking pieces
+     */
+    public long attackersTo(int square, ChessGame.TeamColor byColor, long occupied) {
+        int offset = byColor.ordinal() * 6;
+        long queens = pieces[offset + ChessPiece.PieceType.QUEEN.ordinal()];
+        return (AttackTables.knightAttacks(square) & pieces[offset + ChessPiece.PieceType.KNIGHT.ordinal()]) |
+                (AttackTables.kingAttacks(square) & pieces[offset + ChessPiece.PieceType.KING.ordinal()]) |
+                (AttackTables.pawnAttacks(byColor.getOpposite(), square) &
+                        pieces[offset + ChessPiece.PieceType.PAWN.ordinal()]) |
+                (AttackTables.bishopAttacks(square, occupied) &
+                        (pieces[offset + ChessPiece.PieceType.BISHOP.ordinal()] | queens)) |
+                (AttackTables.rookAttacks(square, occupied) &
+                        (pieces[offset + ChessPiece.PieceType.ROOK.ordinal()] | queens));
     }
 
 
@@ -59,84 +299,52 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
+        Arrays.fill(pieces, 0);
+        Arrays.fill(teams, 0);
+        Arrays.fill(material, 0);
+        key = 0;
+
+        ChessPiece.PieceType[] backRank = {ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT,
+                ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING,
+                ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK};
+
         for (int i = 0; i < 8; i++) {
-            Arrays.fill(board[i], null);
+            addPiece(i, ChessPiece.of(ChessGame.TeamColor.WHITE, backRank[i]));
+            addPiece(8 + i, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(48 + i, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(56 + i, ChessPiece.of(ChessGame.TeamColor.BLACK, backRank[i]));
         }
+    }
 
-        addPiece(new ChessPosition(1, 1),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(2, i),
-                    new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        }
 
-        addPiece(new ChessPosition(8, 1),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(7, i),
-                    new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        }
+    /**
+     * Appends the piece placement field of this board's Forsyth-Edwards Notation to a buffer, so one buffer can be
+     * reused for writing many boards
+     *
+     * @param out buffer to append to
+     */
+    public void appendFen(StringBuilder out) {
+        Fen.appendPlacement(this, out);
     }
 
 
-    @Override
-    public String toString() { // FEN
-        String[][] toStringArr = new String[8][8];
-        for(int i = 0; i < 8; i++) {
-            for(int j = 0; j < 8; j++) {
-                toStringArr[7 - i][j] = board[i][j] == null ? "1" : board[i][j].toString();
-            }
-        }
+    /**
+     * Sets up a board from the piece placement field of Forsyth-Edwards Notation, as written by
+     * {@link #appendFen(StringBuilder)}
+     *
+     * @param placement ranks 8 down to 1, such as {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR}
+     * @return a board with those pieces
+     * @throws IllegalArgumentException if the text isn't a valid placement
+     */
+    public static ChessBoard fromFen(String placement) {
+        return Fen.parsePlacement(placement);
+    }
 
-        StringBuilder out = new StringBuilder();
-        for (String[] arr : toStringArr) {
-            for (String s : arr) {
-                out.append(s);
-            }
-            out.append('/');
-        }
-        out.deleteCharAt(out.length() - 1); // delete trailing slash
-
-        int i = 0;
-        while (i < out.length() - 1) {
-            char first = out.charAt(i);
-            char second = out.charAt(i + 1);
-            if (Character.isDigit(first) && Character.isDigit(second)) {
-                int firstInt = Integer.parseInt(String.valueOf(first));
-                int secondInt = Integer.parseInt(String.valueOf(second));
-                int replace = firstInt + secondInt;
-                out.replace(i, i + 2, String.valueOf(replace));
-            } else i++;
-        }
 
+    @Override
+    public String toString() { // FEN
+        StringBuilder out = new StringBuilder(72);
+        appendFen(out);
         return out.toString();
     }
 
@@ -147,13 +355,23 @@ public class ChessBoard {
         if (o == null || getClass() != o.getClass()) return false;
 
         ChessBoard board = (ChessBoard) o;
-        return Arrays.deepEquals(this.board, board.board);
+        return key == board.key && Arrays.equals(pieces, board.pieces);
     }
 
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(key);
+    }
+
+
+    private static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+
+    private static int square(ChessPosition position) {
+        return position.getSquare();
     }
 
 }
@@ -3,8 +3,11 @@ package chess;
 import chess.ruleset.extra.CastlingRules;
 import chess.ruleset.extra.EnPassantRules;
 import chess.ruleset.extra.ExtraRuleset;
+import chess.ruleset.piece.AttackTables;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 
@@ -22,7 +25,21 @@ public class ChessGame {
 
     boolean active;
 
-    private transient final List<ExtraRuleset> extraRules = List.of(new CastlingRules(this), new EnPassantRules());
+    private int halfmoveClock;
+
+    private int fullmoveNumber = 1;
+
+    private transient final CastlingRules castlingRules = new CastlingRules();
+
+    private transient final EnPassantRules enPassantRules = new EnPassantRules();
+
+    private transient final List<ExtraRuleset> extraRules = List.of(castlingRules, enPassantRules);
+
+    private transient MoveGenerator generator;
+
+    private transient MoveHistory history;
+
+    private transient final RepetitionHistory repetitions = new RepetitionHistory();
 
 
     public ChessGame() {
@@ -34,6 +51,24 @@ public class ChessGame {
     }
 
 
+    /**
+     * Copy constructor. Constructs a game in the same position as the provided game, with its own board, so moves
+     * made on one don't affect the other
+     *
+     * @param copy ChessGame to copy the position of
+     */
+    public ChessGame(ChessGame copy) {
+        board = new ChessBoard(copy.board);
+        teamTurn = copy.teamTurn;
+        active = copy.active;
+        halfmoveClock = copy.halfmoveClock;
+        fullmoveNumber = copy.fullmoveNumber;
+        castlingRules.setCastlingRights(copy.castlingRules.getCastlingRights());
+        enPassantRules.setEnPassantPosition(copy.enPassantRules.getEnPassantPosition());
+        repetitions.copyFrom(copy.repetitions);
+    }
+
+
     /**
      * @return Which team's turn it is
      */
@@ -49,6 +84,8 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         teamTurn = team;
+        history = null;
+        repetitions.clear();
     }
 
 
@@ -65,6 +102,30 @@ public class ChessGame {
     }
 
 
+    /**
+     * The state of a game from the point of view of the team whose turn it is
+     */
+    public enum GameStatus {
+        NORMAL, CHECK, CHECKMATE, STALEMATE, INSUFFICIENT_MATERIAL, FIFTY_MOVE_RULE, THREEFOLD_REPETITION;
+
+
+        /**
+         * @return True if the game can't continue from this status
+         */
+        public boolean isOver() {
+            return this != NORMAL && this != CHECK;
+        }
+
+
+        /**
+         * @return True if the game has ended without a winner
+         */
+        public boolean isDraw() {
+            return isOver() && this != CHECKMATE;
+        }
+    }
+
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -77,28 +138,72 @@ public class ChessGame {
 
         if (piece == null) return null;
 
-        //Get all possible moves for the piece
-        Collection<ChessMove> moves = piece.pieceMoves(board, startPosition);
-
-        for (ExtraRuleset extraRuleset : extraRules) {
-            moves.addAll(extraRuleset.validMoves(board, startPosition));
+        int from = square(startPosition);
+        Collection<ChessMove> moves = new HashSet<>();
+        for (int move : legalMoves(piece.getTeamColor())) {
+            if (PackedMove.from(move) == from) moves.add(PackedMove.toChessMove(move));
         }
+        return moves;
+    }
+
 
-        //If making the move resulted in the king being placed in check, it's not legal
-        moves.removeIf(move -> isMoveInvalid(move, board));
+    /**
+     * Gets every legal move for a team, from the shared {@link LegalMoveCache} if this position has been seen before
+     *
+     * @return moves packed with {@link PackedMove}, which must not be modified
+     */
+    private int[] legalMoves(TeamColor teamColor) {
+        LegalMoveCache cache = LegalMoveCache.shared();
+        long key = positionKey();
+        int[] moves = cache.get(key, teamColor, board.getOccupied());
+        if (moves == null) {
+            MoveList list = new MoveList();
+            new MoveGenerator(this, teamColor).generateAll(list);
+            moves = list.toArray();
+            cache.put(key, teamColor, board.getOccupied(), moves);
+        }
         return moves;
     }
 
 
+    /**
+     * Adds every legal move for a team in the current position to a list, packed with {@link PackedMove}. Once the
+     * game has generated moves once, this doesn't allocate, so it is the method to use when searching through many
+     * positions.
+     *
+     * @param teamColor team to generate moves for
+     * @param moves     list to add the moves to. It isn't cleared first.
+     */
+    public void generateMoves(TeamColor teamColor, MoveList moves) {
+        if (generator == null) generator = new MoveGenerator(this);
+        generator.reset(teamColor);
+        generator.generateAll(moves);
+    }
+
+
     public boolean isMoveInvalid(ChessMove move, ChessBoard board) {
+        if (board != this.board) {
+            try {
+                ChessBoard copyBoard = new ChessBoard(board);
+                ChessPiece movingPiece = copyBoard.getPiece(move.getStartPosition());
+                performMove(move, copyBoard);
+                return isInCheck(movingPiece.getTeamColor(), copyBoard);
+            } catch (InvalidMoveException e) {
+                return true;
+            }
+        }
+
+        //Try the move on this game's own board, then put everything back
+        ChessPiece movingPiece = board.getPiece(move.getStartPosition());
+        MoveUndo undo = new MoveUndo();
         try {
-            ChessBoard copyBoard = new ChessBoard(board);
-            ChessPiece movingPiece = copyBoard.getPiece(move.getStartPosition());
-            performMove(move, copyBoard);
-            return isInCheck(movingPiece.getTeamColor(), copyBoard);
+            makeMove(move, undo);
         } catch (InvalidMoveException e) {
             return true;
         }
+        boolean inCheck = isInCheck(movingPiece.getTeamColor(), board);
+        unmakeMove(undo);
+        return inCheck;
     }
 
 
@@ -114,24 +219,342 @@ public class ChessGame {
         //If there is no piece at the starting location or if said piece is the wrong color, the move is invalid
         if (piece == null) throw new InvalidMoveException("No piece at starting position");
         else if (piece.getTeamColor() != teamTurn) throw new InvalidMoveException("Piece of wrong color for turn");
-        else {
-            //If the piece can't actually make that move, it's invalid
-            Collection<ChessMove> moves = validMoves(move.getStartPosition());
-            if (!moves.contains(move)) {
-                throw new InvalidMoveException("Not a valid move");
+
+        //If the piece can't actually make that move, it's invalid
+        int packed = findLegalMove(move);
+        if (packed == -1) throw new InvalidMoveException("Not a valid move");
+
+        if (history == null) history = new MoveHistory(this);
+        history.makeMove(packed);
+    }
+
+
+    /**
+     * @return the legal move for the team to move matching the given move, packed with {@link PackedMove}, or -1 if
+     * it isn't legal
+     */
+    private int findLegalMove(ChessMove move) {
+        int from = square(move.getStartPosition());
+        int to = square(move.getEndPosition());
+        for (int legal : legalMoves(teamTurn)) {
+            if (PackedMove.from(legal) == from && PackedMove.to(legal) == to &&
+                    PackedMove.promotionPiece(legal) == move.getPromotionPiece()) {
+                return legal;
             }
         }
+        return -1;
+    }
 
-        performMove(move, board);
+
+    /**
+     * Makes a sequence of moves, such as a recorded game being imported, adding each to the move history as
+     * {@link #makeMove(ChessMove)} would. Rather than generating every legal move at each ply, only the moves of the
+     * piece being moved are generated, against the checks and pins of the position, so long games and large archives
+     * can be checked quickly.
+     * <p>
+     * Stops at the first move that isn't legal, leaving the moves before it made.
+     *
+     * @param moves moves to make, in order, starting with the team whose turn it is
+     * @throws InvalidMoveException for the first invalid move, with its index in {@link
+     *                              InvalidMoveException#getMoveIndex()}
+     */
+    public void applyMoves(List<ChessMove> moves) throws InvalidMoveException {
+        MoveList pieceMoves = new MoveList();
+        int index = 0;
+        for (ChessMove move : moves) {
+            int packed;
+            try {
+                packed = findPieceMove(move, pieceMoves);
+            } catch (InvalidMoveException e) {
+                throw new InvalidMoveException("Move " + index + " (" + move + "): " + e.getMessage(), index);
+            }
+            if (history == null) history = new MoveHistory(this);
+            history.makeMove(packed);
+            index++;
+        }
+    }
+
+
+    /**
+     * Checks that a sequence of moves can be played from the current position, without changing this game. Moves are
+     * checked the same way as by {@link #applyMoves(List)}.
+     *
+     * @param moves moves to check, in order, starting with the team whose turn it is
+     * @return the index of the first invalid move, or -1 if they are all legal
+     */
+    public int validateLine(List<ChessMove> moves) {
+        ChessGame line = new ChessGame(this);
+        MoveList pieceMoves = new MoveList();
+        MoveUndo undo = new MoveUndo();
+        int index = 0;
+        for (ChessMove move : moves) {
+            try {
+                line.findPieceMove(move, pieceMoves);
+                line.makeMove(move, undo);
+            } catch (InvalidMoveException e) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Looks for a move among the legal moves of just the piece it starts from
+     *
+     * @param pieceMoves list to generate the piece's moves into
+     * @return the move, packed with {@link PackedMove}
+     * @throws InvalidMoveException if the move isn't legal for the team whose turn it is
+     */
+    private int findPieceMove(ChessMove move, MoveList pieceMoves) throws InvalidMoveException {
+        if (move == null) throw new InvalidMoveException("Missing move");
+        int from = square(move.getStartPosition());
+        int piece = board.getPieceIndex(from);
+        if (piece == -1) throw new InvalidMoveException("No piece at starting position");
+        if (piece / 6 != teamTurn.ordinal()) throw new InvalidMoveException("Piece of wrong color for turn");
+
+        if (generator == null) generator = new MoveGenerator(this);
+        generator.reset(teamTurn);
+        pieceMoves.clear();
+        generator.generate(from, pieceMoves);
+
+        int to = square(move.getEndPosition());
+        for (int i = 0; i < pieceMoves.size(); i++) {
+            int legal = pieceMoves.get(i);
+            if (PackedMove.to(legal) == to && PackedMove.promotionPiece(legal) == move.getPromotionPiece()) return legal;
+        }
+        throw new InvalidMoveException("Not a valid move");
+    }
+
+
+    /**
+     * Gets the number of moves, made with {@link #makeMove(ChessMove)}, that led to the current position. This counts
+     * from when the game was created or last had its board or turn set, and goes down as moves are taken back or
+     * {@link #goToPly(int)} steps back through the history.
+     *
+     * @return the current ply of the move history
+     */
+    public int getPly() {
+        return (history == null) ? 0 : history.getPly();
+    }
+
+
+    /**
+     * @return every move in the history, including any after the current ply that were stepped back over
+     */
+    public List<ChessMove> getMoveHistory() {
+        if (history == null) return List.of();
+        List<ChessMove> moves = new ArrayList<>(history.size());
+        for (int i = 0; i < history.size(); i++) {
+            moves.add(PackedMove.toChessMove(history.getMove(i)));
+        }
+        return moves;
+    }
+
+
+    /**
+     * Takes back the last move made, removing it from the history. Unlike {@link #unmakeMove(MoveUndo)}, this works
+     * on moves made with {@link #makeMove(ChessMove)}.
+     *
+     * @return the move taken back, or null if there are no moves before the current ply
+     */
+    public ChessMove undoMove() {
+        return (history == null) ? null : history.undoMove();
+    }
+
+
+    /**
+     * Puts the game in the position after the first {@code ply} moves of its history, keeping the rest of the history
+     * so later positions can be returned to. Making a move from an earlier ply replaces the moves that came after it.
+     * <p>
+     * Positions are rebuilt from the nearest of the checkpoints kept every
+     * {@value MoveHistory#CHECKPOINT_INTERVAL} plies, or by unmaking moves when that is closer, so this costs at most
+     * a handful of moves however long the game is.
+     *
+     * @param ply number of moves from the start of the history, between 0 and the number of moves in it
+     * @throws IllegalArgumentException if the ply is outside the history
+     */
+    public void goToPly(int ply) {
+        if (history == null) {
+            if (ply != 0) throw new IllegalArgumentException("Ply " + ply + " is outside the history of 0 moves");
+            return;
+        }
+        history.goToPly(ply);
+    }
+
+
+    /**
+     * Makes a move without checking that it is legal, recording what is needed to take it back with
+     * {@link #unmakeMove(MoveUndo)}. The move isn't added to the game's move history, so search code can try moves
+     * and take them back without disturbing it.
+     *
+     * @param move chess move to perform
+     * @param undo record to fill in, which may be reused once the move it held has been unmade
+     * @throws InvalidMoveException if the move can't be performed at all, such as a promotion on a piece that isn't
+     *                              a pawn. The game is left unchanged.
+     */
+    public void makeMove(ChessMove move, MoveUndo undo) throws InvalidMoveException {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        ChessPiece piece = board.getPiece(start);
+        if (piece == null) throw new InvalidMoveException("No piece at starting position");
+
+        long key = positionKey();
+        undo.move = move;
+        undo.castlingRights = castlingRules.getCastlingRights();
+        undo.enPassantPosition = enPassantRules.getEnPassantPosition();
+        undo.teamTurn = teamTurn;
+        undo.halfmoveClock = halfmoveClock;
+        undo.repetitionHead = repetitions.getHead();
+        undo.repetitionCount = repetitions.getCount();
+        undo.capturedPiece = board.getPiece(end);
+        undo.changed = 0;
+        undo.record(board, square(start));
+        undo.record(board, square(end));
+
+        if (castlingRules.moveMatches(move, board)) {
+            int row = end.getRow();
+            int rookColumn = (start.getColumn() > end.getColumn()) ? 1 : 8;
+            undo.record(board, square(row, rookColumn));
+            undo.record(board, square(row, (start.getColumn() + end.getColumn()) / 2));
+        } else if (enPassantRules.moveMatches(move, board)) {
+            int captured = square(start.getRow(), end.getColumn());
+            undo.capturedPiece = board.getPiece(captured);
+            undo.record(board, captured);
+        }
+
+        try {
+            performMove(move, board);
+        } catch (InvalidMoveException e) {
+            undo.restore(board);
+            throw e;
+        }
 
         for (ExtraRuleset extraRuleset : extraRules) {
             extraRuleset.moveMade(move, board);
         }
 
+        //The position before a capture or pawn move can never come up again, so it is only kept for other moves
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN || undo.capturedPiece != null) {
+            halfmoveClock = 0;
+            repetitions.clear();
+        } else {
+            halfmoveClock++;
+            repetitions.push(key);
+        }
+        if (teamTurn == TeamColor.BLACK) fullmoveNumber++;
         teamTurn = teamTurn.getOpposite();
     }
 
 
+    /**
+     * Makes a move packed with {@link PackedMove}, such as one from {@link #generateMoves(TeamColor, MoveList)},
+     * without checking that it is legal
+     *
+     * @see #makeMove(ChessMove, MoveUndo)
+     */
+    public void makeMove(int move, MoveUndo undo) throws InvalidMoveException {
+        makeMove(PackedMove.toChessMove(move), undo);
+    }
+
+
+    /**
+     * Takes back a move made with {@link #makeMove(ChessMove, MoveUndo)}, restoring the board, whose turn it is,
+     * castling options, en passant state and move counters. Moves must be unmade in the reverse order they were made.
+     *
+     * @param undo the record filled in when the move was made
+     */
+    public void unmakeMove(MoveUndo undo) {
+        undo.restore(board);
+        castlingRules.setCastlingRights(undo.castlingRights);
+        enPassantRules.setEnPassantPosition(undo.enPassantPosition);
+        teamTurn = undo.teamTurn;
+        halfmoveClock = undo.halfmoveClock;
+        repetitions.reset(undo.repetitionHead, undo.repetitionCount);
+        if (teamTurn == TeamColor.BLACK) fullmoveNumber--;
+    }
+
+
+    /**
+     * Gets the Zobrist key of the current position: the pieces on the board, whose turn it is, the castling options
+     * left, and the file of a pawn that can be taken en passant. The board's part of the key is updated as each move
+     * is made, so this is constant time.
+     * <p>
+     * Positions with the same key can be treated as the same position, such as for repetition or caching. The en
+     * passant file only counts when a pawn is actually in place to make the capture, so a double pawn move that
+     * can't be answered en passant doesn't make an otherwise repeated position look new.
+     *
+     * @return 64-bit hash of the position
+     */
+    public long positionKey() {
+        long key = board.getKey() ^ Zobrist.sideToMove(teamTurn) ^
+                Zobrist.castling(castlingRules.getCastlingRights());
+
+        ChessPosition enPassant = enPassantRules.getEnPassantPosition();
+        if (enPassant != null) {
+            int target = enPassant.getSquare() + ((teamTurn == TeamColor.WHITE) ? 8 : -8);
+            long capturers = board.getPieces(teamTurn, ChessPiece.PieceType.PAWN) &
+                    AttackTables.pawnAttacks(teamTurn.getOpposite(), target);
+            if (capturers != 0) key ^= Zobrist.enPassant(enPassant.getColumn());
+        }
+        return key;
+    }
+
+
+    /**
+     * @return the number of moves since the last capture or pawn move, as counted for the fifty-move rule
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+
+    /**
+     * @return the number of the current full move, starting at 1 and going up after each of black's moves
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+
+    /**
+     * Writes the full position in Forsyth-Edwards Notation
+     *
+     * @return the position, such as {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}
+     * @see #fromFen(String)
+     */
+    public String toFen() {
+        StringBuilder out = new StringBuilder(90);
+        appendFen(out);
+        return out.toString();
+    }
+
+
+    /**
+     * Appends the full position in Forsyth-Edwards Notation to a buffer, so one buffer can be reused for writing many
+     * positions
+     *
+     * @param out buffer to append to
+     */
+    public void appendFen(StringBuilder out) {
+        Fen.append(this, out);
+    }
+
+
+    /**
+     * Sets up a game from a position in Forsyth-Edwards Notation, including whose turn it is, the castling options,
+     * the en passant square and the move counters. The fields after the side to move may be left off.
+     *
+     * @param fen the position, such as the one written by {@link #toFen()}
+     * @return a game in that position
+     * @throws IllegalArgumentException if the text isn't a valid position
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+
     /**
      * Determines if the given team is in check
      *
@@ -144,37 +567,69 @@ public class ChessGame {
 
 
     public static boolean isInCheck(TeamColor teamColor, ChessBoard board) {
-        ChessPosition king = null;
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition pos = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece != null && piece.getTeamColor() == teamColor &&
-                        piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    king = pos;
-                    break;
-                }
-            }
-        }
+        int king = board.getKingSquare(teamColor);
+        return king != -1 && board.isSquareAttacked(king, teamColor.getOpposite());
+    }
+
+
+    /**
+     * Works out whether the team whose turn it is is in check, checkmate or stalemate, or whether the game is drawn
+     * because neither side has enough material left to checkmate, fifty moves have passed without a capture or pawn
+     * move, or the position has come up for the third time. Check is tested once, and move generation stops at the
+     * first legal move, so this is cheaper than asking {@link #isInCheckmate(TeamColor)},
+     * {@link #isInStalemate(TeamColor)} and {@link #isInCheck(TeamColor)} in turn.
+     * <p>
+     * Repetitions are counted from the positions reached with {@link #makeMove(ChessMove, MoveUndo)} since the last
+     * capture or pawn move, and since the position was last set up directly.
+     *
+     * @return the status of the game for the team to move
+     */
+    public GameStatus evaluateStatus() {
+        boolean inCheck = isInCheck(teamTurn);
+        if (!hasLegalMove(teamTurn)) return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        if (hasInsufficientMaterial()) return GameStatus.INSUFFICIENT_MATERIAL;
+        if (halfmoveClock >= 100) return GameStatus.FIFTY_MOVE_RULE;
+        if (repetitions.occurrences(positionKey()) >= 2) return GameStatus.THREEFOLD_REPETITION;
+        return inCheck ? GameStatus.CHECK : GameStatus.NORMAL;
+    }
 
-        if (king == null) return false;
-
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition pos = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece != null && piece.getTeamColor() != teamColor) {
-                    for (ChessMove move : piece.pieceMoves(board, pos)) {
-                        if (move.getEndPosition().equals(king)) return true;
-                    }
-                }
-            }
-        }
 
+    private boolean hasLegalMove(TeamColor teamColor) {
+        int[] cached = LegalMoveCache.shared().get(positionKey(), teamColor, board.getOccupied());
+        if (cached != null) return cached.length > 0;
+
+        MoveGenerator generator = new MoveGenerator(this, teamColor);
+        MoveList moves = new MoveList();
+        long pieces = board.getPieces(teamColor);
+        while (pieces != 0) {
+            generator.generate(Long.numberOfTrailingZeros(pieces), moves);
+            if (!moves.isEmpty()) return true;
+            pieces &= pieces - 1;
+        }
         return false;
     }
 
 
+    /**
+     * Neither side can checkmate with only kings left, a king and one minor piece against a bare king, or kings and
+     * bishops that all stand on squares of the same color
+     */
+    private boolean hasInsufficientMaterial() {
+        long kings = board.getPieces(TeamColor.WHITE, ChessPiece.PieceType.KING) |
+                board.getPieces(TeamColor.BLACK, ChessPiece.PieceType.KING);
+        long knights = board.getPieces(TeamColor.WHITE, ChessPiece.PieceType.KNIGHT) |
+                board.getPieces(TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        long bishops = board.getPieces(TeamColor.WHITE, ChessPiece.PieceType.BISHOP) |
+                board.getPieces(TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+        long others = board.getOccupied() & ~kings;
+        if (others != (knights | bishops)) return false;
+
+        if (Long.bitCount(others) <= 1) return true;
+        long lightSquares = 0x55AA55AA55AA55AAL;
+        return knights == 0 && ((bishops & lightSquares) == 0 || (bishops & ~lightSquares) == 0);
+    }
+
+
     /**
      * Determines if the given team is in checkmate
      *
@@ -199,16 +654,7 @@ public class ChessGame {
 
 
     private boolean noValidMovesExist(TeamColor teamColor) {
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition pos = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    if (!validMoves(pos).isEmpty()) return false;
-                }
-            }
-        }
-        return true;
+        return legalMoves(teamColor).length == 0;
     }
 
 
@@ -219,6 +665,8 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        history = null;
+        repetitions.clear();
         for (ExtraRuleset extraRuleset : extraRules) {
             extraRuleset.setBoard(board);
         }
@@ -262,11 +710,84 @@ public class ChessGame {
 
             ChessGame.TeamColor color = board.getPiece(move.getStartPosition()).getTeamColor();
             board.addPiece(move.getStartPosition(), null);
-            board.addPiece(move.getEndPosition(), new ChessPiece(color, move.getPromotionPiece()));
+            board.addPiece(move.getEndPosition(), ChessPiece.of(color, move.getPromotionPiece()));
         }
     }
 
 
+    /**
+     * Overrides the castling options worked out by {@link #setBoard(ChessBoard)}, for setting up a position that
+     * didn't come from a game, such as one read from FEN
+     *
+     * @param rights castling options in the format of {@link CastlingRules#getCastlingRights()}
+     */
+    void setCastlingRights(int rights) {
+        castlingRules.setCastlingRights(rights);
+        history = null;
+        repetitions.clear();
+    }
+
+
+    /**
+     * @param position the pawn that just moved two squares and can be taken en passant, or null if there isn't one
+     */
+    void setEnPassantPosition(ChessPosition position) {
+        enPassantRules.setEnPassantPosition(position);
+        history = null;
+        repetitions.clear();
+    }
+
+
+    void setMoveCounters(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        history = null;
+        repetitions.clear();
+    }
+
+
+    /**
+     * Puts this game in the same position as another, keeping this game's board object, move history and active
+     * state
+     *
+     * @param repetitions positions leading up to the one restored, copied from {@link #getRepetitions()} at the time
+     */
+    void restore(ChessGame position, RepetitionHistory repetitions) {
+        this.repetitions.copyFrom(repetitions);
+        board.copyFrom(position.board);
+        teamTurn = position.teamTurn;
+        castlingRules.setCastlingRights(position.castlingRules.getCastlingRights());
+        enPassantRules.setEnPassantPosition(position.enPassantRules.getEnPassantPosition());
+        halfmoveClock = position.halfmoveClock;
+        fullmoveNumber = position.fullmoveNumber;
+    }
+
+
+    RepetitionHistory getRepetitions() {
+        return repetitions;
+    }
+
+
+    CastlingRules getCastlingRules() {
+        return castlingRules;
+    }
+
+
+    EnPassantRules getEnPassantRules() {
+        return enPassantRules;
+    }
+
+
+    private static int square(ChessPosition position) {
+        return position.getSquare();
+    }
+
+
+    private static int square(int row, int col) {
+        return (row - 1) * 8 + col - 1;
+    }
+
+
     public boolean isActive() {
         return active;
     }
@@ -297,9 +818,8 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        int result = board != null ? board.hashCode() : 0;
-        result = 31 * result + (teamTurn != null ? teamTurn.hashCode() : 0);
-        return result;
+        //Only the parts of the key that equals also compares
+        return (board == null) ? 0 : Long.hashCode(board.getKey() ^ Zobrist.sideToMove(teamTurn));
     }
 
 }
@@ -10,6 +10,9 @@ import java.util.Objects;
  */
 public class ChessMove {
 
+    //One slot per start square, end square and promotion (none, queen, bishop, knight or rook), filled on first use
+    private static final ChessMove[] MOVES = new ChessMove[64 * 64 * 5];
+
     private final ChessPosition endPosition;
 
     private final ChessPiece.PieceType promotionPiece;
@@ -44,6 +47,60 @@ public class ChessMove {
     }
 
 
+    /**
+     * Gets the shared instance for a move. Moves are immutable, so this should be preferred over the constructor
+     * wherever moves are generated in bulk.
+     *
+     * @param from           square index (0 for a1, 63 for h8) the move starts on
+     * @param to             square index the move ends on
+     * @param promotionPiece Piece to promote to during the move, or null
+     * @return the cached move
+     */
+    public static ChessMove of(int from, int to, ChessPiece.PieceType promotionPiece) {
+        if (promotionPiece == ChessPiece.PieceType.KING || promotionPiece == ChessPiece.PieceType.PAWN)
+            throw new IllegalArgumentException("Invalid promotion piece");
+
+        //KING is ordinal 0, so the remaining promotion pieces land on 1 through 4
+        int index = ((from | to << 6) * 5) + ((promotionPiece == null) ? 0 : promotionPiece.ordinal());
+        ChessMove move = MOVES[index];
+        if (move == null) {
+            //Moves are immutable, so two threads racing to fill a slot just store equal instances
+            move = new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotionPiece);
+            MOVES[index] = move;
+        }
+        return move;
+    }
+
+
+    /**
+     * @param from square index (0 for a1, 63 for h8) the move starts on
+     * @param to   square index the move ends on
+     * @return the cached move without a promotion
+     */
+    public static ChessMove of(int from, int to) {
+        return of(from, to, null);
+    }
+
+
+    /**
+     * @return the cached move between the given positions
+     * @see #of(int, int, ChessPiece.PieceType)
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        return of(startPosition.getSquare(), endPosition.getSquare(), promotionPiece);
+    }
+
+
+    /**
+     * @return the cached move between the given positions, without a promotion
+     * @see #of(int, int, ChessPiece.PieceType)
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition) {
+        return of(startPosition, endPosition, null);
+    }
+
+
     /**
      * @return ChessPosition of starting location
      */
@@ -1,7 +1,6 @@
 package chess;
 
-import chess.ruleset.piece.*;
-
+import java.util.ArrayList;
 import java.util.Collection;
 
 /**
@@ -12,6 +11,16 @@ import java.util.Collection;
  */
 public class ChessPiece {
 
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor teamColor;
 
     private final PieceType pieceType;
@@ -23,6 +32,18 @@ public class ChessPiece {
     }
 
 
+    /**
+     * Gets the shared instance for a piece. Pieces are immutable, so this should be preferred over the constructor.
+     *
+     * @param color team the piece belongs to
+     * @param type  type of the piece
+     * @return the cached piece of that color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor color, PieceType type) {
+        return PIECES[color.ordinal() * 6 + type.ordinal()];
+    }
+
+
     /**
      * The various different chess piece options
      */
@@ -55,14 +76,13 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        return (switch (board.getPiece(myPosition).pieceType) {
-            case KING -> new KingRuleset();
-            case QUEEN -> new QueenRuleset();
-            case BISHOP -> new BishopRuleset();
-            case KNIGHT -> new KnightRuleset();
-            case ROOK -> new RookRuleset();
-            case PAWN -> new PawnRuleset();
-        }).pieceMoves(board, myPosition);
+        MoveList moves = new MoveList();
+        MoveGenerator.generatePieceMoves(board, myPosition.getSquare(), moves);
+        Collection<ChessMove> pieceMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            pieceMoves.add(PackedMove.toChessMove(moves.get(i)));
+        }
+        return pieceMoves;
     }
 
 
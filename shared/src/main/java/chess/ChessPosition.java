@@ -8,6 +8,14 @@ package chess;
  */
 public class ChessPosition {
 
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            POSITIONS[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
     private final int row;
 
     private final int col;
@@ -28,6 +36,39 @@ public class ChessPosition {
     }
 
 
+    /**
+     * Gets the shared instance for a position. Positions are immutable, so this should be preferred over the
+     * constructor wherever positions are created in bulk.
+     *
+     * @param row Row of the board the position is at
+     * @param col Col of the board the position is at
+     * @return the cached position for that location
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || col < 1 || row > 8 || col > 8) {
+            throw new IllegalArgumentException(row + ", " + col + " is not on the board");
+        }
+        return POSITIONS[(row - 1) * 8 + col - 1];
+    }
+
+
+    /**
+     * @param square square index, 0 for a1 through 63 for h8
+     * @return the cached position for that square
+     */
+    public static ChessPosition of(int square) {
+        return POSITIONS[square];
+    }
+
+
+    /**
+     * @return this position's square index, 0 for a1 through 63 for h8
+     */
+    public int getSquare() {
+        return (row - 1) * 8 + col - 1;
+    }
+
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -0,0 +1,227 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation: piece placement, side to move, castling options, en passant
+ * square, and the halfmove and fullmove counters.
+ * <p>
+ * Both directions make a single pass over the text. Writing appends to a caller's {@link StringBuilder}, so a buffer
+ * can be reused for many positions, and reading walks the characters directly rather than splitting the string.
+ */
+final class Fen {
+
+    //Indexed by piece index: color ordinal * 6 + PieceType ordinal
+    private static final char[] PIECE_CHARS = {'K', 'Q', 'B', 'N', 'R', 'P', 'k', 'q', 'b', 'n', 'r', 'p'};
+
+    private static final char[] CASTLING_CHARS = {'K', 'Q', 'k', 'q'};
+
+
+    private Fen() {}
+
+
+    /**
+     * Appends the piece placement field, from rank 8 down to rank 1
+     */
+    static void appendPlacement(ChessBoard board, StringBuilder out) {
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int index = board.getPieceIndex(row * 8 + col);
+                if (index == -1) {
+                    empty++;
+                } else {
+                    if (empty > 0) out.append((char) ('0' + empty));
+                    empty = 0;
+                    out.append(PIECE_CHARS[index]);
+                }
+            }
+            if (empty > 0) out.append((char) ('0' + empty));
+            if (row > 0) out.append('/');
+        }
+    }
+
+
+    /**
+     * Appends all six fields of a game's position
+     */
+    static void append(ChessGame game, StringBuilder out) {
+        appendPlacement(game.getBoard(), out);
+        out.append(' ').append((game.getTeamTurn() == ChessGame.TeamColor.WHITE) ? 'w' : 'b').append(' ');
+
+        int rights = game.getCastlingRules().getCastlingRights();
+        if (rights == 0) out.append('-');
+        for (int i = 0; i < 4; i++) {
+            if ((rights & (1 << i)) != 0) out.append(CASTLING_CHARS[i]);
+        }
+        out.append(' ');
+
+        //The game tracks the pawn that moved two squares, while FEN names the square it skipped over
+        ChessPosition enPassant = game.getEnPassantRules().getEnPassantPosition();
+        if (enPassant == null) out.append('-');
+        else out.append((char) ('a' + enPassant.getColumn() - 1)).append((enPassant.getRow() == 4) ? '3' : '6');
+
+        out.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+    }
+
+
+    /**
+     * Sets up a game from FEN. The castling, en passant and counter fields may be left off, in which case there are no
+     * castling options or en passant square, and the counters start at 0 and 1.
+     *
+     * @throws IllegalArgumentException if the text isn't a valid position
+     */
+    static ChessGame parse(CharSequence fen) {
+        Parser parser = new Parser(fen);
+        parser.skipSpaces();
+        ChessBoard board = parsePlacement(parser);
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+
+        parser.skipSpaces();
+        if (!parser.hasMore()) throw parser.error("Missing side to move");
+        game.setTeamTurn(switch (fen.charAt(parser.index++)) {
+            case 'w' -> ChessGame.TeamColor.WHITE;
+            case 'b' -> ChessGame.TeamColor.BLACK;
+            default -> throw parser.error("Side to move must be w or b");
+        });
+        parser.endField();
+
+        int rights = 0;
+        if (parser.hasMore() && fen.charAt(parser.index) == '-') parser.index++;
+        else {
+            while (parser.hasMore() && fen.charAt(parser.index) != ' ') {
+                rights |= switch (fen.charAt(parser.index++)) {
+                    case 'K' -> 1;
+                    case 'Q' -> 2;
+                    case 'k' -> 4;
+                    case 'q' -> 8;
+                    default -> throw parser.error("Invalid castling option");
+                };
+            }
+        }
+        game.setCastlingRights(rights);
+        parser.endField();
+
+        if (parser.hasMore() && fen.charAt(parser.index) == '-') parser.index++;
+        else if (parser.hasMore()) {
+            if (parser.index + 1 >= fen.length()) throw parser.error("Invalid en passant square");
+            int file = fen.charAt(parser.index) - 'a' + 1;
+            char rank = fen.charAt(parser.index + 1);
+            if (file < 1 || file > 8 || (rank != '3' && rank != '6')) throw parser.error("Invalid en passant square");
+            parser.index += 2;
+            game.setEnPassantPosition(ChessPosition.of((rank == '3') ? 4 : 5, file));
+        }
+        parser.endField();
+
+        int halfmoveClock = parser.hasMore() ? parser.number() : 0;
+        parser.endField();
+        int fullmoveNumber = parser.hasMore() ? parser.number() : 1;
+        parser.skipSpaces();
+        if (parser.hasMore()) throw parser.error("Unexpected text after the move counters");
+        if (fullmoveNumber < 1) throw parser.error("Fullmove number starts at 1");
+        game.setMoveCounters(halfmoveClock, fullmoveNumber);
+        return game;
+    }
+
+
+    /**
+     * Sets up a board from just the piece placement field
+     *
+     * @throws IllegalArgumentException if the text isn't a valid placement, or has anything after it
+     */
+    static ChessBoard parsePlacement(CharSequence placement) {
+        Parser parser = new Parser(placement);
+        parser.skipSpaces();
+        ChessBoard board = parsePlacement(parser);
+        parser.skipSpaces();
+        if (parser.hasMore()) throw parser.error("Unexpected text after the piece placement");
+        return board;
+    }
+
+
+    private static ChessBoard parsePlacement(Parser parser) {
+        CharSequence fen = parser.fen;
+        ChessBoard board = new ChessBoard();
+        int row = 7;
+        int col = 0;
+        while (parser.hasMore() && fen.charAt(parser.index) != ' ') {
+            char c = fen.charAt(parser.index++);
+            if (c == '/') {
+                if (col != 8) throw parser.error("Rank " + (row + 1) + " doesn't have 8 squares");
+                if (--row < 0) throw parser.error("Too many ranks");
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+                if (col > 8) throw parser.error("Rank " + (row + 1) + " is too long");
+            } else {
+                if (col >= 8) throw parser.error("Rank " + (row + 1) + " is too long");
+                board.addPiece(row * 8 + col, pieceIndex(c, parser));
+                col++;
+            }
+        }
+        if (row != 0 || col != 8) throw parser.error("Piece placement needs 8 ranks of 8 squares");
+        return board;
+    }
+
+
+    private static int pieceIndex(char c, Parser parser) {
+        for (int i = 0; i < PIECE_CHARS.length; i++) {
+            if (PIECE_CHARS[i] == c) return i;
+        }
+        throw parser.error("Invalid piece '" + c + "'");
+    }
+
+
+    /**
+     * Position in the text being read
+     */
+    private static class Parser {
+
+        private final CharSequence fen;
+
+        private int index;
+
+
+        Parser(CharSequence fen) {
+            this.fen = fen;
+        }
+
+
+        boolean hasMore() {
+            return index < fen.length();
+        }
+
+
+        void skipSpaces() {
+            while (hasMore() && fen.charAt(index) == ' ') index++;
+        }
+
+
+        /**
+         * Moves past the space ending a field, if there is more text
+         */
+        void endField() {
+            if (hasMore() && fen.charAt(index) != ' ') throw error("Expected a space");
+            skipSpaces();
+        }
+
+
+        int number() {
+            int start = index;
+            int value = 0;
+            while (hasMore() && fen.charAt(index) >= '0' && fen.charAt(index) <= '9') {
+                value = value * 10 + (fen.charAt(index++) - '0');
+                if (value > 100_000) throw error("Move counter is too large");
+            }
+            if (index == start) throw error("Expected a number");
+            return value;
+        }
+
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at character " + index + " of FEN: " + fen);
+        }
+
+    }
+
+}
@@ -0,0 +1,185 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary encoding of a game's position, for storing games and sending them to clients that ask for it.
+ * <p>
+ * Version 1 is {@value #ENCODED_SIZE} bytes:
+ * <ul>
+ *     <li>1 byte: format version</li>
+ *     <li>32 bytes: one 4-bit code per square from a1 to h8, low nibble first. 0 is an empty square, otherwise the
+ *     code is 1 + color ordinal * 6 + {@link ChessPiece.PieceType} ordinal.</li>
+ *     <li>1 byte: bit 0 set if it is black's turn, bits 1-4 the castling options in the format of
+ *     {@link chess.ruleset.extra.CastlingRules#getCastlingRights()}, bit 5 set if the game is still active</li>
+ *     <li>1 byte: file (1-8) of the pawn that can be taken en passant, or 0 if there isn't one</li>
+ *     <li>2 bytes each: halfmove clock and fullmove number, unsigned big-endian</li>
+ * </ul>
+ * Decoders check the version byte first, so the format can grow without misreading games stored in an older one.
+ * <p>
+ * Stored games also need the positions since the last capture or pawn move, or a reloaded game could never end by
+ * threefold repetition. {@link #encodeWithHistory(ChessGame)} writes the game followed by a 1-byte count and then that
+ * many 8-byte {@link ChessGame#positionKey()}s, oldest first. Clients are sent the game alone.
+ */
+public final class GameCodec {
+
+    /**
+     * Version written by {@link #encode(ChessGame, ByteBuffer)}
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Number of bytes in an encoded game
+     */
+    public static final int ENCODED_SIZE = 39;
+
+    private static final int BLACK_TO_MOVE = 1;
+
+    private static final int ACTIVE = 1 << 5;
+
+
+    private GameCodec() {}
+
+
+    /**
+     * Writes a game at the buffer's position, advancing it past the encoded game
+     *
+     * @param game game to encode
+     * @param out  buffer with at least {@link #ENCODED_SIZE} bytes remaining
+     */
+    public static void encode(ChessGame game, ByteBuffer out) {
+        out.put(VERSION);
+
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square += 2) {
+            out.put((byte) ((board.getPieceIndex(square) + 1) | ((board.getPieceIndex(square + 1) + 1) << 4)));
+        }
+
+        int state = game.getCastlingRules().getCastlingRights() << 1;
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) state |= BLACK_TO_MOVE;
+        if (game.isActive()) state |= ACTIVE;
+        out.put((byte) state);
+
+        ChessPosition enPassant = game.getEnPassantRules().getEnPassantPosition();
+        out.put((byte) ((enPassant == null) ? 0 : enPassant.getColumn()));
+
+        out.putShort((short) Math.min(game.getHalfmoveClock(), 0xFFFF));
+        out.putShort((short) Math.min(game.getFullmoveNumber(), 0xFFFF));
+    }
+
+
+    /**
+     * @param game game to encode
+     * @return a new array holding the encoded game
+     */
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[ENCODED_SIZE];
+        encode(game, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+
+    /**
+     * Reads a game from the buffer's position, advancing it past the encoded game
+     *
+     * @param in buffer holding a game written by {@link #encode(ChessGame, ByteBuffer)}
+     * @return the decoded game
+     * @throws IllegalArgumentException if the data is from an unknown version, is cut short, or isn't a valid game
+     */
+    public static ChessGame decode(ByteBuffer in) {
+        try {
+            byte version = in.get();
+            if (version != VERSION) throw new IllegalArgumentException("Unknown game encoding version " + version);
+
+            ChessBoard board = new ChessBoard();
+            for (int square = 0; square < 64; square += 2) {
+                int pair = in.get() & 0xFF;
+                board.addPiece(square, pieceIndex(pair & 0xF));
+                board.addPiece(square + 1, pieceIndex(pair >>> 4));
+            }
+
+            int state = in.get() & 0xFF;
+            int enPassantFile = in.get();
+            int halfmoveClock = in.getShort() & 0xFFFF;
+            int fullmoveNumber = in.getShort() & 0xFFFF;
+            if (enPassantFile < 0 || enPassantFile > 8) {
+                throw new IllegalArgumentException("Invalid en passant file " + enPassantFile);
+            }
+            if (fullmoveNumber < 1) throw new IllegalArgumentException("Invalid fullmove number " + fullmoveNumber);
+
+            ChessGame game = new ChessGame();
+            game.setBoard(board);
+            ChessGame.TeamColor turn =
+                    ((state & BLACK_TO_MOVE) != 0) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            game.setTeamTurn(turn);
+            game.setCastlingRights((state >>> 1) & 0xF);
+            game.setActive((state & ACTIVE) != 0);
+            if (enPassantFile != 0) {
+                //The pawn that moved two squares belongs to the team that just moved
+                game.setEnPassantPosition(
+                        ChessPosition.of((turn == ChessGame.TeamColor.WHITE) ? 5 : 4, enPassantFile));
+            }
+            game.setMoveCounters(halfmoveClock, fullmoveNumber);
+            return game;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Encoded game is shorter than " + ENCODED_SIZE + " bytes", e);
+        }
+    }
+
+
+    /**
+     * @param bytes array holding a game written by {@link #encode(ChessGame)}
+     * @return the decoded game
+     * @throws IllegalArgumentException if the data is from an unknown version, is cut short, or isn't a valid game
+     */
+    public static ChessGame decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+
+    /**
+     * Encodes a game for storage, along with the positions it could still repeat
+     *
+     * @param game game to encode
+     * @return a new array holding the encoded game and its repetition history
+     */
+    public static byte[] encodeWithHistory(ChessGame game) {
+        long[] keys = game.getRepetitions().toArray();
+        ByteBuffer out = ByteBuffer.allocate(ENCODED_SIZE + 1 + keys.length * Long.BYTES);
+        encode(game, out);
+        out.put((byte) keys.length);
+        for (long key : keys) out.putLong(key);
+        return out.array();
+    }
+
+
+    /**
+     * Reads a game written by {@link #encodeWithHistory(ChessGame)}. A game written by {@link #encode(ChessGame)}
+     * is read with no history, as games stored before the history was kept are.
+     *
+     * @param bytes array holding the encoded game
+     * @return the decoded game
+     * @throws IllegalArgumentException if the data is from an unknown version, is cut short, or isn't a valid game
+     */
+    public static ChessGame decodeWithHistory(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        ChessGame game = decode(in);
+        if (!in.hasRemaining()) return game;
+        try {
+            long[] keys = new long[in.get() & 0xFF];
+            for (int i = 0; i < keys.length; i++) keys[i] = in.getLong();
+            game.getRepetitions().load(keys);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Encoded repetition history is cut short", e);
+        }
+        return game;
+    }
+
+
+    private static int pieceIndex(int code) {
+        if (code > 12) throw new IllegalArgumentException("Invalid piece code " + code);
+        return code - 1;
+    }
+
+}
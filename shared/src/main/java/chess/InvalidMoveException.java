@@ -5,11 +5,35 @@ package chess;
  */
 public class InvalidMoveException extends Exception {
 
-    public InvalidMoveException() {}
+    private final int moveIndex;
+
+
+    public InvalidMoveException() {
+        moveIndex = -1;
+    }
 
 
     public InvalidMoveException(String message) {
         super(message);
+        moveIndex = -1;
+    }
+
+
+    /**
+     * @param moveIndex index of the invalid move in a sequence of moves being applied
+     */
+    public InvalidMoveException(String message, int moveIndex) {
+        super(message);
+        this.moveIndex = moveIndex;
+    }
+
+
+    /**
+     * @return index of the invalid move in the sequence passed to {@link ChessGame#applyMoves(java.util.List)}, or -1
+     * if the exception isn't about a sequence of moves
+     */
+    public int getMoveIndex() {
+        return moveIndex;
     }
 
 }
@@ -0,0 +1,169 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of every legal move for one team in a position, keyed by {@link ChessGame#positionKey()}.
+ * <p>
+ * Lookups are lock-free. When the cache is full, inserts evict with the CLOCK algorithm: a hand sweeps a ring of
+ * entries, clearing each entry's referenced flag and evicting the first one found that hasn't been looked up since
+ * the hand last passed it.
+ * <p>
+ * Each entry also stores the board's occupancy, so a key collision between two different positions is treated as
+ * a miss instead of returning the wrong moves.
+ */
+public class LegalMoveCache {
+
+    //Mixed into the key when generating for black, so both teams' moves can be cached for the same position
+    private static final long BLACK_MOVES = 0x9E3779B97F4A7C15L;
+
+    private static final LegalMoveCache SHARED =
+            new LegalMoveCache(Integer.getInteger("chess.legalMoveCache.size", 4096));
+
+    private final ConcurrentHashMap<Long, Entry> entries;
+
+    private final Entry[] ring;
+
+    private int hand;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+
+    /**
+     * @param capacity most positions to hold at once
+     */
+    public LegalMoveCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        entries = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+        ring = new Entry[capacity];
+    }
+
+
+    /**
+     * @return the cache every {@link ChessGame} uses, sized by the {@code chess.legalMoveCache.size} system property
+     */
+    public static LegalMoveCache shared() {
+        return SHARED;
+    }
+
+
+    /**
+     * @param positionKey key of the position
+     * @param color       team the moves are for
+     * @param occupied    the board's occupancy, to guard against key collisions
+     * @return the cached moves, packed with {@link PackedMove}, or null if they aren't cached. The array must not be
+     * modified.
+     */
+    public int[] get(long positionKey, ChessGame.TeamColor color, long occupied) {
+        Entry entry = entries.get(key(positionKey, color));
+        if (entry == null || entry.occupied != occupied) {
+            misses.increment();
+            return null;
+        }
+        entry.referenced = true;
+        hits.increment();
+        return entry.moves;
+    }
+
+
+    /**
+     * Caches the moves for a position, evicting another position if the cache is full
+     *
+     * @param moves moves packed with {@link PackedMove}. The array must not be modified afterward.
+     * @see #get(long, ChessGame.TeamColor, long)
+     */
+    public void put(long positionKey, ChessGame.TeamColor color, long occupied, int[] moves) {
+        Entry entry = new Entry(key(positionKey, color), occupied, moves);
+        synchronized (ring) {
+            if (entries.putIfAbsent(entry.key, entry) != null) return;
+
+            while (ring[hand] != null && ring[hand].referenced) {
+                ring[hand].referenced = false;
+                hand = (hand + 1) % ring.length;
+            }
+            if (ring[hand] != null) {
+                entries.remove(ring[hand].key);
+                evictions.increment();
+            }
+            ring[hand] = entry;
+            hand = (hand + 1) % ring.length;
+        }
+    }
+
+
+    public int size() {
+        return entries.size();
+    }
+
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+
+    /**
+     * Empties the cache and resets its counters
+     */
+    public void clear() {
+        synchronized (ring) {
+            entries.clear();
+            Arrays.fill(ring, null);
+            hand = 0;
+            hits.reset();
+            misses.reset();
+            evictions.reset();
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return String.format("LegalMoveCache[size=%d/%d, hits=%d, misses=%d, evictions=%d, hit rate=%.1f%%]",
+                size(), ring.length, hitCount, total - hitCount, getEvictions(),
+                (total == 0) ? 0.0 : 100.0 * hitCount / total);
+    }
+
+
+    private static long key(long positionKey, ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.BLACK) ? positionKey ^ BLACK_MOVES : positionKey;
+    }
+
+
+    private static final class Entry {
+
+        final long key;
+
+        final long occupied;
+
+        final int[] moves;
+
+        volatile boolean referenced;
+
+
+        Entry(long key, long occupied, int[] moves) {
+            this.key = key;
+            this.occupied = occupied;
+            this.moves = moves;
+        }
+
+    }
+
+}
@@ -0,0 +1,239 @@
+package chess;
+
+import chess.ruleset.piece.AttackTables;
+
+/**
+ * Generates legal moves for one team in a game.
+ * <p>
+ * The pieces giving check and the pieces pinned to their king are found once, when the generator is set up for a
+ * team. Moves for every other piece are then limited directly to the squares that keep the king safe, so only king
+ * moves and en passant need any further testing, which is done with bitboards rather than by making the move.
+ * <p>
+ * Moves are written as {@link PackedMove} ints into a {@link MoveList}, so once set up a generator can be reused
+ * across positions without allocating. {@link ChessPiece#pieceMoves} uses the same targets through
+ * {@link #generatePieceMoves}, without the king safety checks.
+ */
+class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    private final ChessGame game;
+
+    private ChessBoard board;
+
+    private ChessGame.TeamColor color;
+
+    private int king;
+
+    private long own;
+
+    private long enemy;
+
+    private long checkers;
+
+    private long pinned;
+
+    private long checkMask;
+
+
+    MoveGenerator(ChessGame game) {
+        this.game = game;
+    }
+
+
+    MoveGenerator(ChessGame game, ChessGame.TeamColor color) {
+        this(game);
+        reset(color);
+    }
+
+
+    /**
+     * Sets the generator up for one team in the game's current position. Must be called again after the position
+     * changes.
+     */
+    void reset(ChessGame.TeamColor color) {
+        this.board = game.getBoard();
+        this.color = color;
+
+        own = board.getPieces(color);
+        enemy = board.getPieces(color.getOpposite());
+
+        king = board.getKingSquare(color);
+        if (king == -1) {
+            checkers = 0;
+            pinned = 0;
+            checkMask = ~0L;
+            return;
+        }
+
+        ChessGame.TeamColor opponent = color.getOpposite();
+        checkers = board.attackersTo(king, opponent, own | enemy);
+
+        if (checkers == 0) checkMask = ~0L;
+        else if (Long.bitCount(checkers) == 1)
+            checkMask = checkers | AttackTables.between(king, Long.numberOfTrailingZeros(checkers));
+        else checkMask = 0;
+
+        //Enemy sliders that would attack the king if only friendly pieces were in the way
+        long queens = board.getPieces(opponent, ChessPiece.PieceType.QUEEN);
+        long snipers = (AttackTables.rookAttacks(king, enemy) &
+                (board.getPieces(opponent, ChessPiece.PieceType.ROOK) | queens)) |
+                (AttackTables.bishopAttacks(king, enemy) &
+                        (board.getPieces(opponent, ChessPiece.PieceType.BISHOP) | queens));
+        long pins = 0;
+        while (snipers != 0) {
+            long blockers = AttackTables.between(king, Long.numberOfTrailingZeros(snipers)) & (own | enemy);
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) pins |= blockers;
+            snipers &= snipers - 1;
+        }
+        pinned = pins;
+    }
+
+
+    /**
+     * Adds every legal move for this generator's team to a list
+     */
+    void generateAll(MoveList moves) {
+        long pieces = own;
+        while (pieces != 0) {
+            generate(Long.numberOfTrailingZeros(pieces), moves);
+            pieces &= pieces - 1;
+        }
+    }
+
+
+    /**
+     * Adds every legal move for the piece on a square to a list
+     *
+     * @param square square of one of this generator's team's pieces
+     */
+    void generate(int square, MoveList moves) {
+        if (square == king) {
+            addKingMoves(moves);
+            return;
+        }
+
+        ChessPiece.PieceType type = board.getPiece(square).getPieceType();
+        long targets = targets(type, color, square, own, enemy);
+
+        targets &= checkMask;
+        if ((pinned & (1L << square)) != 0) targets &= AttackTables.line(king, square);
+        addMoves(type, color, square, targets, moves);
+
+        if (type == ChessPiece.PieceType.PAWN) addEnPassant(square, moves);
+    }
+
+
+    /**
+     * Adds every move for the piece on a square to a list, ignoring whether it leaves its king in check. Castling and
+     * en passant need the game's history, so aren't included.
+     *
+     * @param square square of a piece on the board
+     */
+    static void generatePieceMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        ChessGame.TeamColor color = piece.getTeamColor();
+        long targets = targets(piece.getPieceType(), color, square, board.getPieces(color),
+                board.getPieces(color.getOpposite()));
+        addMoves(piece.getPieceType(), color, square, targets, moves);
+    }
+
+
+    private static long targets(ChessPiece.PieceType type, ChessGame.TeamColor color, int square, long own,
+                                long enemy) {
+        return switch (type) {
+            case KING -> AttackTables.kingAttacks(square) & ~own;
+            case QUEEN -> AttackTables.queenAttacks(square, own | enemy) & ~own;
+            case ROOK -> AttackTables.rookAttacks(square, own | enemy) & ~own;
+            case BISHOP -> AttackTables.bishopAttacks(square, own | enemy) & ~own;
+            case KNIGHT -> AttackTables.knightAttacks(square) & ~own;
+            case PAWN -> pawnTargets(color, square, own, enemy);
+        };
+    }
+
+
+    private static void addMoves(ChessPiece.PieceType type, ChessGame.TeamColor color, int square, long targets,
+                                 MoveList moves) {
+        boolean promotes = type == ChessPiece.PieceType.PAWN &&
+                ((color == ChessGame.TeamColor.WHITE && square >= 48) ||
+                        (color == ChessGame.TeamColor.BLACK && square < 16));
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (promotes) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    moves.add(PackedMove.encodePromotion(square, to, promotion));
+                }
+            } else {
+                moves.add(PackedMove.encode(square, to, PackedMove.NORMAL));
+            }
+            targets &= targets - 1;
+        }
+    }
+
+
+    private static long pawnTargets(ChessGame.TeamColor color, int square, long own, long enemy) {
+        long empty = ~(own | enemy);
+        long targets = AttackTables.pawnAttacks(color, square) & enemy;
+
+        int forward = (color == ChessGame.TeamColor.WHITE) ? 8 : -8;
+        int single = square + forward;
+        if (single >= 0 && single < 64 && (empty & (1L << single)) != 0) {
+            targets |= 1L << single;
+            boolean onStartingRow = (color == ChessGame.TeamColor.WHITE) ? square < 16 : square >= 48;
+            if (onStartingRow && (empty & (1L << (single + forward))) != 0) targets |= 1L << (single + forward);
+        }
+        return targets;
+    }
+
+
+    private void addKingMoves(MoveList moves) {
+        ChessGame.TeamColor opponent = color.getOpposite();
+
+        //Take the king off the board, so it can't hide from a sliding piece behind itself
+        long occupied = (own | enemy) & ~(1L << king);
+        long targets = AttackTables.kingAttacks(king) & ~own;
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            if (board.attackersTo(target, opponent, occupied) == 0) {
+                moves.add(PackedMove.encode(king, target, PackedMove.NORMAL));
+            }
+            targets &= targets - 1;
+        }
+
+        //Castling: the king must be on its starting square and not in check, and can't cross an attacked square
+        int home = (color == ChessGame.TeamColor.WHITE) ? 4 : 60;
+        if (king != home || checkers != 0) return;
+        int rights = game.getCastlingRules().getCastlingRights() >>> (color.ordinal() * 2);
+        long rooks = board.getPieces(color, ChessPiece.PieceType.ROOK);
+        if ((rights & 1) != 0 && (rooks & (1L << (home + 3))) != 0 &&
+                ((own | enemy) & (3L << (home + 1))) == 0 &&
+                !board.isSquareAttacked(home + 1, opponent) && !board.isSquareAttacked(home + 2, opponent)) {
+            moves.add(PackedMove.encode(home, home + 2, PackedMove.CASTLING));
+        }
+        if ((rights & 2) != 0 && (rooks & (1L << (home - 4))) != 0 &&
+                ((own | enemy) & (7L << (home - 3))) == 0 &&
+                !board.isSquareAttacked(home - 1, opponent) && !board.isSquareAttacked(home - 2, opponent)) {
+            moves.add(PackedMove.encode(home, home - 2, PackedMove.CASTLING));
+        }
+    }
+
+
+    private void addEnPassant(int square, MoveList moves) {
+        ChessPosition enPassant = game.getEnPassantRules().getEnPassantPosition();
+        if (enPassant == null) return;
+        int captured = enPassant.getSquare();
+        long capturedBit = 1L << captured;
+        if ((enemy & board.getPieces(color.getOpposite(), ChessPiece.PieceType.PAWN) & capturedBit) == 0) return;
+        if (captured / 8 != square / 8 || Math.abs(captured % 8 - square % 8) != 1) return;
+
+        int to = captured + ((color == ChessGame.TeamColor.WHITE) ? 8 : -8);
+        if (king != -1) {
+            //Both pawns leave their squares at once, which can expose the king along the rank, so check directly
+            long occupied = ((own | enemy) & ~(1L << square) & ~capturedBit) | (1L << to);
+            if ((board.attackersTo(king, color.getOpposite(), occupied) & ~capturedBit) != 0) return;
+        }
+        moves.add(PackedMove.encode(square, to, PackedMove.EN_PASSANT));
+    }
+
+}
@@ -0,0 +1,139 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The moves made in a game, packed with {@link PackedMove}, with the undo record for each and a checkpoint every
+ * {@value #CHECKPOINT_INTERVAL} plies: the {@link GameCodec}-encoded position and the positions leading up to it.
+ * <p>
+ * The history has a current ply, the number of its moves that have been played to reach the game's position. Stepping
+ * back a few plies unmakes moves with their undo records, while longer jumps restore the nearest checkpoint at or
+ * before the target and replay from there, so no jump replays more than {@value #CHECKPOINT_INTERVAL} moves. Moves
+ * after the current ply are kept until a different move is made from it.
+ */
+final class MoveHistory {
+
+    static final int CHECKPOINT_INTERVAL = 16;
+
+    private final ChessGame game;
+
+    private int[] moves = new int[64];
+
+    private MoveUndo[] undos = new MoveUndo[64];
+
+    //checkpoints.get(i) is the position before ply i * CHECKPOINT_INTERVAL
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+    private int size;
+
+    private int ply;
+
+    //Undo records from here up to the current ply are filled in. Those below were unmade, or skipped by a checkpoint.
+    private int firstUndo;
+
+
+    MoveHistory(ChessGame game) {
+        this.game = game;
+    }
+
+
+    /**
+     * Makes a move in the game at the current ply, discarding any moves that had been made after it
+     *
+     * @param move a legal move, packed with {@link PackedMove}
+     */
+    void makeMove(int move) throws InvalidMoveException {
+        //Checkpoints past the current ply belong to the moves being discarded
+        int index = ply / CHECKPOINT_INTERVAL;
+        while (checkpoints.size() > index + 1) checkpoints.remove(checkpoints.size() - 1);
+        if (checkpoints.size() == index) {
+            checkpoints.add(new Checkpoint(GameCodec.encode(game), new RepetitionHistory(game.getRepetitions())));
+        }
+        if (ply == moves.length) {
+            moves = Arrays.copyOf(moves, ply * 2);
+            undos = Arrays.copyOf(undos, ply * 2);
+        }
+        if (undos[ply] == null) undos[ply] = new MoveUndo();
+
+        game.makeMove(move, undos[ply]);
+        moves[ply] = move;
+        size = ++ply;
+    }
+
+
+    /**
+     * Takes back the move before the current ply, discarding it and any moves after it
+     *
+     * @return the move taken back, or null if the current ply is 0
+     */
+    ChessMove undoMove() {
+        if (ply == 0) return null;
+        int move = moves[ply - 1];
+        goToPly(ply - 1);
+        size = ply;
+        return PackedMove.toChessMove(move);
+    }
+
+
+    /**
+     * Puts the game in the position after the first {@code target} moves of the history
+     */
+    void goToPly(int target) {
+        if (target < 0 || target > size) {
+            throw new IllegalArgumentException("Ply " + target + " is outside the history of " + size + " moves");
+        }
+
+        if (target == ply) return;
+
+        //The last checkpoint is only taken once a move is made from its ply, so the end of the history may not have one
+        int checkpoint = Math.min(target / CHECKPOINT_INTERVAL, checkpoints.size() - 1);
+        int checkpointPly = checkpoint * CHECKPOINT_INTERVAL;
+        boolean restore = (target < ply) ? target < firstUndo || ply - target > target - checkpointPly :
+                checkpointPly > ply;
+        if (restore) {
+            Checkpoint restored = checkpoints.get(checkpoint);
+            game.restore(GameCodec.decode(restored.position()), restored.repetitions());
+            ply = checkpointPly;
+            firstUndo = ply;
+        }
+
+        while (ply > target) {
+            game.unmakeMove(undos[--ply]);
+        }
+        while (ply < target) {
+            try {
+                game.makeMove(moves[ply], undos[ply]);
+            } catch (InvalidMoveException e) {
+                throw new IllegalStateException("Move " + ply + " of the history can't be replayed", e);
+            }
+            ply++;
+        }
+    }
+
+
+    int getPly() {
+        return ply;
+    }
+
+
+    int size() {
+        return size;
+    }
+
+
+    /**
+     * @return the packed move at an index of the history
+     */
+    int getMove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for history of " + size);
+        }
+        return moves[index];
+    }
+
+
+    private record Checkpoint(byte[] position, RepetitionHistory repetitions) {}
+
+}
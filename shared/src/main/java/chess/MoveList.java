@@ -0,0 +1,73 @@
+package chess;
+
+/**
+ * A reusable, growable list of moves packed with {@link PackedMove}. Clearing and refilling the same list avoids
+ * allocating while searching through many positions.
+ */
+public class MoveList {
+
+    private int[] moves;
+
+    private int size;
+
+
+    public MoveList() {
+        //No position has more than 218 legal moves
+        this(256);
+    }
+
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+
+    public void add(int move) {
+        if (size == moves.length) {
+            int[] grown = new int[moves.length * 2];
+            System.arraycopy(moves, 0, grown, 0, size);
+            moves = grown;
+        }
+        moves[size++] = move;
+    }
+
+
+    public int get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(index + " is past the end of a list of " + size);
+        return moves[index];
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    public void clear() {
+        size = 0;
+    }
+
+
+    /**
+     * @return a copy of the moves in the list
+     */
+    public int[] toArray() {
+        int[] copy = new int[size];
+        System.arraycopy(moves, 0, copy, 0, size);
+        return copy;
+    }
+
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) return true;
+        }
+        return false;
+    }
+
+}
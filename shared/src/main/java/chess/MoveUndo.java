@@ -0,0 +1,65 @@
+package chess;
+
+/**
+ * Everything needed to take back a move made with {@link ChessGame#makeMove(ChessMove, MoveUndo)}: the squares the
+ * move changed and what was on them, and the game state the move overwrote.
+ * <p>
+ * A single record can be reused for many moves, as long as each move is unmade before the record is used again.
+ */
+public class MoveUndo {
+
+    final int[] squares = new int[4];
+
+    final ChessPiece[] pieces = new ChessPiece[4];
+
+    int changed;
+
+    ChessMove move;
+
+    ChessPiece capturedPiece;
+
+    int castlingRights;
+
+    ChessPosition enPassantPosition;
+
+    ChessGame.TeamColor teamTurn;
+
+    int halfmoveClock;
+
+    int repetitionHead;
+
+    int repetitionCount;
+
+
+    /**
+     * @return the move this record takes back
+     */
+    public ChessMove getMove() {
+        return move;
+    }
+
+
+    /**
+     * @return the piece the move captured, or null if it didn't capture anything
+     */
+    public ChessPiece getCapturedPiece() {
+        return capturedPiece;
+    }
+
+
+    void record(ChessBoard board, int square) {
+        squares[changed] = square;
+        pieces[changed] = board.getPiece(square);
+        changed++;
+    }
+
+
+    void restore(ChessBoard board) {
+        for (int i = changed - 1; i >= 0; i--) {
+            board.addPiece(squares[i], pieces[i]);
+            pieces[i] = null;
+        }
+        changed = 0;
+    }
+
+}
@@ -0,0 +1,86 @@
+package chess;
+
+/**
+ * Encodes a move as a single 16-bit int, so moves can be generated and stored without allocating.
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square, both numbered {@code (row - 1) * 8 + (column - 1)}.
+ * Bits 12-13 hold the promotion piece (queen, rook, bishop or knight) and bits 14-15 a flag saying what kind of move
+ * it is.
+ */
+public final class PackedMove {
+
+    public static final int NORMAL = 0;
+
+    public static final int PROMOTION = 1;
+
+    public static final int EN_PASSANT = 2;
+
+    public static final int CASTLING = 3;
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+
+    private PackedMove() {}
+
+
+    /**
+     * @param from square the move starts on
+     * @param to   square the move ends on
+     * @param flag {@link #NORMAL}, {@link #EN_PASSANT} or {@link #CASTLING}
+     * @return the packed move
+     */
+    public static int encode(int from, int to, int flag) {
+        return from | to << 6 | flag << 14;
+    }
+
+
+    /**
+     * @param from      square the move starts on
+     * @param to        square the move ends on
+     * @param promotion piece the pawn promotes to
+     * @return the packed promotion move
+     */
+    public static int encodePromotion(int from, int to, ChessPiece.PieceType promotion) {
+        int piece = switch (promotion) {
+            case QUEEN -> 0;
+            case ROOK -> 1;
+            case BISHOP -> 2;
+            case KNIGHT -> 3;
+            case KING, PAWN -> throw new IllegalArgumentException("Invalid promotion piece");
+        };
+        return from | to << 6 | piece << 12 | PROMOTION << 14;
+    }
+
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+
+    public static int flag(int move) {
+        return (move >>> 14) & 0x3;
+    }
+
+
+    /**
+     * @return the piece the move promotes to, or null if it isn't a promotion
+     */
+    public static ChessPiece.PieceType promotionPiece(int move) {
+        return (flag(move) == PROMOTION) ? PROMOTIONS[(move >>> 12) & 0x3] : null;
+    }
+
+
+    /**
+     * @return the (cached) {@link ChessMove} for a packed move
+     */
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotionPiece(move));
+    }
+
+}
@@ -0,0 +1,221 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"). The counts for well known positions are
+ * published, so comparing against them checks the move generator and make/unmake end to end.
+ * <p>
+ * Run from the command line as {@code Perft <depth> [fen] [--divide] [--parallel]}. With {@code --divide}, the count
+ * below each root move is printed as well, which narrows a wrong total down to the move whose subtree is off. With
+ * {@code --parallel}, the count is split across every core.
+ */
+public class Perft {
+
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private final ChessGame game;
+
+    private MoveList[] moveLists = new MoveList[0];
+
+    private MoveUndo[] undos = new MoveUndo[0];
+
+
+    /**
+     * @param game game whose current position to count from. Moves are made and unmade on it while counting, and it
+     *             is left as it started.
+     */
+    public Perft(ChessGame game) {
+        this.game = game;
+    }
+
+
+    /**
+     * @param depth number of plies to look ahead
+     * @return the number of move sequences of exactly that length from the current position
+     */
+    public long count(int depth) {
+        ensureDepth(depth);
+        return count(depth, 0);
+    }
+
+
+    /**
+     * @param depth number of plies to look ahead, including the root move
+     * @return the number of leaf nodes below each legal root move, in the order the moves were generated
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        if (depth < 1) throw new IllegalArgumentException("Divide needs a depth of at least 1");
+        ensureDepth(depth);
+
+        MoveList moves = moveLists[0];
+        moves.clear();
+        game.generateMoves(game.getTeamTurn(), moves);
+
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            make(game, move, undos[0]);
+            counts.put(PackedMove.toChessMove(move), count(depth - 1, 1));
+            game.unmakeMove(undos[0]);
+        }
+        return counts;
+    }
+
+
+    /**
+     * Counts like {@link #count(int)}, but splits the tree into a fork/join task for each move in the first
+     * {@code splitDepth} plies. Every task plays its move on its own copy of the game, then counts the rest of its
+     * subtree sequentially.
+     *
+     * @param game       game whose current position to count from. It isn't changed.
+     * @param depth      number of plies to look ahead
+     * @param splitDepth number of plies to split into separate tasks. 1 gives one task per root move, which is
+     *                   usually enough; more helps when the root has few moves.
+     * @param pool       pool to run the tasks in
+     * @return the number of move sequences of exactly that length from the game's position
+     */
+    public static long countParallel(ChessGame game, int depth, int splitDepth, ForkJoinPool pool) {
+        if (depth < 0) throw new IllegalArgumentException("Depth can't be negative");
+        return pool.invoke(new CountTask(new ChessGame(game), depth, splitDepth));
+    }
+
+
+    private long count(int depth, int ply) {
+        if (depth == 0) return 1;
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.generateMoves(game.getTeamTurn(), moves);
+        if (depth == 1) return moves.size();
+
+        long nodes = 0;
+        MoveUndo undo = undos[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            make(game, moves.get(i), undo);
+            nodes += count(depth - 1, ply + 1);
+            game.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+
+    private static void make(ChessGame game, int move, MoveUndo undo) {
+        try {
+            game.makeMove(move, undo);
+        } catch (InvalidMoveException e) {
+            throw new IllegalStateException("Generated move " + PackedMove.toChessMove(move) + " couldn't be made in " +
+                    game, e);
+        }
+    }
+
+
+    private void ensureDepth(int depth) {
+        if (depth < 0) throw new IllegalArgumentException("Depth can't be negative");
+        if (moveLists.length >= depth) return;
+
+        moveLists = new MoveList[depth];
+        undos = new MoveUndo[depth];
+        for (int i = 0; i < depth; i++) {
+            moveLists[i] = new MoveList();
+            undos[i] = new MoveUndo();
+        }
+    }
+
+
+    private static class CountTask extends RecursiveTask<Long> {
+
+        private final ChessGame game;
+
+        private final int depth;
+
+        private final int splitDepth;
+
+
+        CountTask(ChessGame game, int depth, int splitDepth) {
+            this.game = game;
+            this.depth = depth;
+            this.splitDepth = splitDepth;
+        }
+
+
+        @Override
+        protected Long compute() {
+            if (splitDepth <= 0 || depth <= 1) return new Perft(game).count(depth);
+
+            MoveList moves = new MoveList();
+            game.generateMoves(game.getTeamTurn(), moves);
+            List<CountTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessGame child = new ChessGame(game);
+                make(child, moves.get(i), new MoveUndo());
+                tasks.add(new CountTask(child, depth - 1, splitDepth - 1));
+            }
+
+            long nodes = 0;
+            for (CountTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+
+    }
+
+
+    /**
+     * Sets up a game from a position in Forsyth-Edwards Notation
+     *
+     * @param fen the position, such as {@link #STARTING_POSITION}
+     * @return a game in that position
+     * @see ChessGame#fromFen(String)
+     */
+    public static ChessGame fromFen(String fen) {
+        return ChessGame.fromFen(fen);
+    }
+
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Perft <depth> [fen] [--divide] [--parallel]");
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        boolean divide = false;
+        boolean parallel = false;
+        StringBuilder fen = new StringBuilder();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--divide")) divide = true;
+            else if (args[i].equals("--parallel")) parallel = true;
+            else fen.append(args[i]).append(' ');
+        }
+        ChessGame game = fromFen(fen.isEmpty() ? STARTING_POSITION : fen.toString());
+        Perft perft = new Perft(game);
+
+        long start = System.nanoTime();
+        long nodes;
+        if (divide) {
+            nodes = 0;
+            for (Map.Entry<ChessMove, Long> entry : perft.divide(depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+            System.out.println();
+        } else if (parallel) {
+            nodes = countParallel(game, depth, 1, ForkJoinPool.commonPool());
+        } else {
+            nodes = perft.count(depth);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("Nodes: " + nodes);
+        System.out.printf("Time: %.3f s%n", elapsed / 1e9);
+        System.out.printf("Speed: %,.0f nodes/s%n", nodes / (elapsed / 1e9));
+    }
+
+}
@@ -0,0 +1,106 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Analyzes many positions at once across a fork/join pool, such as for checking every stored game.
+ * <p>
+ * The list of games is split in half until each task has only a few games left. Each game is copied before it is
+ * analyzed, so the games passed in are never changed and may be shared.
+ */
+public class PositionAnalyzer {
+
+    private static final int GAMES_PER_TASK = 16;
+
+    private final ForkJoinPool pool;
+
+    private final int perftDepth;
+
+
+    /**
+     * @param pool       pool to run the analysis in
+     * @param perftDepth depth to count the move tree to for each position, or 0 to skip counting
+     */
+    public PositionAnalyzer(ForkJoinPool pool, int perftDepth) {
+        if (perftDepth < 0) throw new IllegalArgumentException("Depth can't be negative");
+        this.pool = pool;
+        this.perftDepth = perftDepth;
+    }
+
+
+    /**
+     * What was found about one position
+     *
+     * @param positionKey {@link ChessGame#positionKey()} of the position
+     * @param teamTurn    team to move
+     * @param status      status of the game for the team to move
+     * @param legalMoves  number of legal moves for the team to move
+     * @param nodes       number of move sequences to the analyzer's perft depth, or 0 if it doesn't count them
+     */
+    public record Analysis(long positionKey, ChessGame.TeamColor teamTurn, ChessGame.GameStatus status,
+                           int legalMoves, long nodes) {}
+
+
+    /**
+     * @param games positions to analyze
+     * @return the analysis of each position, in the same order as the games
+     */
+    public List<Analysis> analyze(List<ChessGame> games) {
+        Analysis[] results = new Analysis[games.size()];
+        pool.invoke(new AnalyzeTask(games, results, 0, games.size()));
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+
+    /**
+     * Analyzes a single position on the calling thread
+     *
+     * @param game position to analyze. It isn't changed.
+     */
+    public Analysis analyze(ChessGame game) {
+        ChessGame copy = new ChessGame(game);
+        MoveList moves = new MoveList();
+        copy.generateMoves(copy.getTeamTurn(), moves);
+        long nodes = (perftDepth > 0) ? new Perft(copy).count(perftDepth) : 0;
+        return new Analysis(copy.positionKey(), copy.getTeamTurn(), copy.evaluateStatus(), moves.size(), nodes);
+    }
+
+
+    private class AnalyzeTask extends RecursiveAction {
+
+        private final List<ChessGame> games;
+
+        private final Analysis[] results;
+
+        private final int start;
+
+        private final int end;
+
+
+        AnalyzeTask(List<ChessGame> games, Analysis[] results, int start, int end) {
+            this.games = games;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+
+        @Override
+        protected void compute() {
+            if (end - start <= GAMES_PER_TASK) {
+                for (int i = start; i < end; i++) {
+                    results[i] = analyze(games.get(i));
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new AnalyzeTask(games, results, start, middle), new AnalyzeTask(games, results, middle, end));
+        }
+
+    }
+
+}
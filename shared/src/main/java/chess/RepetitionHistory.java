@@ -0,0 +1,121 @@
+package chess;
+
+/**
+ * The {@link ChessGame#positionKey()} of each position since the last capture or pawn move, in a ring buffer.
+ * <p>
+ * No position before an irreversible move can come up again, so the history is emptied by each one and a repetition
+ * check only compares keys back to it. The buffer holds {@value #CAPACITY} keys, more than the 100 plies the
+ * fifty-move rule allows between irreversible moves, so it never wraps over a key that is still needed in a game
+ * that ends by the rules.
+ * <p>
+ * Making and unmaking a move saves and restores just the write position and count, so the keys themselves are never
+ * copied while searching.
+ */
+final class RepetitionHistory {
+
+    static final int CAPACITY = 128;
+
+    private final long[] keys;
+
+    //Index the next key is written to
+    private int head;
+
+    //Number of keys back from the head that belong to the current run of reversible moves
+    private int count;
+
+
+    RepetitionHistory() {
+        keys = new long[CAPACITY];
+    }
+
+
+    RepetitionHistory(RepetitionHistory copy) {
+        keys = copy.keys.clone();
+        head = copy.head;
+        count = copy.count;
+    }
+
+
+    /**
+     * Sets this history to match another's, without allocating
+     */
+    void copyFrom(RepetitionHistory other) {
+        System.arraycopy(other.keys, 0, keys, 0, CAPACITY);
+        head = other.head;
+        count = other.count;
+    }
+
+
+    /**
+     * Records the key of a position that a reversible move was just made from
+     */
+    void push(long key) {
+        keys[head] = key;
+        head = (head + 1) & (CAPACITY - 1);
+        //One slot is always left free, so unmaking back to a full history finds its oldest key intact
+        if (count < CAPACITY - 1) count++;
+    }
+
+
+    /**
+     * Forgets every key, after an irreversible move or when a position is set up directly
+     */
+    void clear() {
+        count = 0;
+    }
+
+
+    int getHead() {
+        return head;
+    }
+
+
+    int getCount() {
+        return count;
+    }
+
+
+    /**
+     * Puts the write position and count back to what they were before a move, as saved in its {@link MoveUndo}
+     */
+    void reset(int head, int count) {
+        this.head = head;
+        this.count = count;
+    }
+
+
+    /**
+     * @return the keys back to the last irreversible move, oldest first
+     */
+    long[] toArray() {
+        long[] run = new long[count];
+        for (int i = 0; i < count; i++) run[i] = keys[(head - count + i) & (CAPACITY - 1)];
+        return run;
+    }
+
+
+    /**
+     * Replaces the history with keys saved by {@link #toArray()}, keeping only the newest that fit
+     */
+    void load(long[] run) {
+        clear();
+        for (int i = Math.max(0, run.length - (CAPACITY - 1)); i < run.length; i++) push(run[i]);
+    }
+
+
+    /**
+     * Counts earlier occurrences of a position. Only every other key is compared, as the positions in between had the
+     * other team to move.
+     *
+     * @param key key of the current position
+     * @return the number of times the position came up before, since the last irreversible move
+     */
+    int occurrences(long key) {
+        int found = 0;
+        for (int back = 2; back <= count; back += 2) {
+            if (keys[(head - back) & (CAPACITY - 1)] == key) found++;
+        }
+        return found;
+    }
+
+}
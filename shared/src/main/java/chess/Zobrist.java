@@ -0,0 +1,71 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the key for every piece on its square, plus keys
+ * for the side to move, the castling options and the en passant file, so a move updates it with a few XORs instead
+ * of rehashing the board.
+ * <p>
+ * The keys come from a fixed seed, so the same position has the same key in every run and on every server.
+ */
+final class Zobrist {
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+
+    private static final long[] CASTLING = new long[16];
+
+    private static final long[] EN_PASSANT_FILE = new long[8];
+
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+        for (long[] piece : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                piece[square] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++) {
+            EN_PASSANT_FILE[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+
+    private Zobrist() {}
+
+
+    /**
+     * @param piece  index of the piece, {@code color.ordinal() * 6 + type.ordinal()}
+     * @param square square the piece is on
+     */
+    static long piece(int piece, int square) {
+        return PIECE_SQUARE[piece][square];
+    }
+
+
+    /**
+     * @param rights castling options in the format of {@link chess.ruleset.extra.CastlingRules#getCastlingRights()}
+     */
+    static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+
+    /**
+     * @param file column of the pawn that can be taken en passant, 1 through 8
+     */
+    static long enPassant(int file) {
+        return EN_PASSANT_FILE[file - 1];
+    }
+
+
+    static long sideToMove(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.BLACK) ? BLACK_TO_MOVE : 0;
+    }
+
+}
@@ -3,45 +3,49 @@ package chess.ruleset.extra;
 import chess.*;
 
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashSet;
 
 public class CastlingRules implements ExtraRuleset {
 
     private final boolean[] castlingOptions;
-    private final ChessGame host;
 
 
-    public CastlingRules(ChessGame host) {
+    public CastlingRules() {
         castlingOptions = new boolean[4];
         Arrays.fill(castlingOptions, true);
-        this.host = host;
     }
 
 
     public void setBoard(ChessBoard board) {
-        ChessPiece whiteKing = board.getPiece(new ChessPosition(1, 5));
-        ChessPiece whiteRookK = board.getPiece(new ChessPosition(1, 8));
-        ChessPiece whiteRookQ = board.getPiece(new ChessPosition(1, 1));
-
-        if (whiteKing == null || whiteKing.getPieceType() != ChessPiece.PieceType.KING) {
-            castlingOptions[0] = false;
-            castlingOptions[1] = false;
-        } else {
-            castlingOptions[0] = (whiteRookK != null && whiteRookK.getPieceType() == ChessPiece.PieceType.ROOK);
-            castlingOptions[1] = (whiteRookQ != null && whiteRookQ.getPieceType() == ChessPiece.PieceType.ROOK);
+        //Each option stays available only if the king and that rook are still on their starting squares
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int backRank = (color == ChessGame.TeamColor.WHITE) ? 0 : 56;
+            boolean kingHome = board.getKingSquare(color) == backRank + 4;
+            long rooks = board.getPieces(color, ChessPiece.PieceType.ROOK);
+            castlingOptions[color.ordinal() * 2] = kingHome && (rooks & (1L << (backRank + 7))) != 0;
+            castlingOptions[color.ordinal() * 2 + 1] = kingHome && (rooks & (1L << backRank)) != 0;
         }
+    }
 
-        ChessPiece blackKing = board.getPiece(new ChessPosition(8, 5));
-        ChessPiece blackRookK = board.getPiece(new ChessPosition(8, 8));
-        ChessPiece blackRookQ = board.getPiece(new ChessPosition(8, 1));
 
-        if (blackKing == null || blackKing.getPieceType() != ChessPiece.PieceType.KING) {
-            castlingOptions[2] = false;
-            castlingOptions[3] = false;
-        } else {
-            castlingOptions[2] = (blackRookK != null && blackRookK.getPieceType() == ChessPiece.PieceType.ROOK);
-            castlingOptions[3] = (blackRookQ != null && blackRookQ.getPieceType() == ChessPiece.PieceType.ROOK);
+    /**
+     * @return the castling options still available, one bit each for white king side, white queen side, black king
+     * side and black queen side, from the lowest bit up
+     */
+    public int getCastlingRights() {
+        int rights = 0;
+        for (int i = 0; i < castlingOptions.length; i++) {
+            if (castlingOptions[i]) rights |= 1 << i;
+        }
+        return rights;
+    }
+
+
+    /**
+     * @param rights castling options in the format returned by {@link #getCastlingRights()}
+     */
+    public void setCastlingRights(int rights) {
+        for (int i = 0; i < castlingOptions.length; i++) {
+            castlingOptions[i] = (rights & (1 << i)) != 0;
         }
     }
 
@@ -56,16 +60,19 @@ public class CastlingRules implements ExtraRuleset {
                 castlingOptions[2] = false;
                 castlingOptions[3] = false;
             }
-        } else if (piece.getPieceType() == ChessPiece.PieceType.ROOK) {
-            ChessPosition startPos = move.getStartPosition();
-            if (castlingOptions[0] && startPos.getRow() == 1 && startPos.getColumn() == 8) castlingOptions[0] = false;
+        }
 
-            if (castlingOptions[1] && startPos.getRow() == 1 && startPos.getColumn() == 1) castlingOptions[1] = false;
+        //A rook leaving its corner, or being captured there, ends that option for good
+        clearCorner(move.getStartPosition());
+        clearCorner(move.getEndPosition());
+    }
 
-            if (castlingOptions[2] && startPos.getRow() == 8 && startPos.getColumn() == 8) castlingOptions[2] = false;
 
-            if (castlingOptions[3] && startPos.getRow() == 8 && startPos.getColumn() == 1) castlingOptions[3] = false;
-        }
+    private void clearCorner(ChessPosition position) {
+        if (position.getRow() == 1 && position.getColumn() == 8) castlingOptions[0] = false;
+        else if (position.getRow() == 1 && position.getColumn() == 1) castlingOptions[1] = false;
+        else if (position.getRow() == 8 && position.getColumn() == 8) castlingOptions[2] = false;
+        else if (position.getRow() == 8 && position.getColumn() == 1) castlingOptions[3] = false;
     }
 
 
@@ -77,32 +84,6 @@ public class CastlingRules implements ExtraRuleset {
     }
 
 
-    public Collection<ChessMove> validMoves(ChessBoard board, ChessPosition position) {
-        Collection<ChessMove> ret = new HashSet<>();
-
-        ChessPiece piece = board.getPiece(position);
-
-        if (piece == null || piece.getPieceType() != ChessPiece.PieceType.KING || position.getColumn() != 5 ||
-                ((piece.getTeamColor() == ChessGame.TeamColor.WHITE && position.getRow() != 1) ||
-                        (piece.getTeamColor() == ChessGame.TeamColor.BLACK && position.getRow() != 8))) {
-            return ret;
-        }
-
-        int offset = piece.getTeamColor() == ChessGame.TeamColor.WHITE ? 0 : 2;
-
-        if (castlingOptions[offset]) {
-            ChessMove kingSideCastle = singleCastlingMove(board, piece.getTeamColor(), true);
-            if (kingSideCastle != null) ret.add(kingSideCastle);
-        }
-        if (castlingOptions[offset + 1]) {
-            ChessMove queenSideCastle = singleCastlingMove(board, piece.getTeamColor(), false);
-            if (queenSideCastle != null) ret.add(queenSideCastle);
-        }
-
-        return ret;
-    }
-
-
     public void performMove(ChessMove move, ChessBoard board) throws InvalidMoveException {
         if (move.getPromotionPiece() != null ||
                 board.getPiece(move.getStartPosition()).getPieceType() != ChessPiece.PieceType.KING ||
@@ -110,9 +91,9 @@ public class CastlingRules implements ExtraRuleset {
             throw new InvalidMoveException("Not a valid castling move");
         }
         int oldColumn = (move.getStartPosition().getColumn() > move.getEndPosition().getColumn()) ? 1 : 8;
-        ChessPosition oldPosition = new ChessPosition(move.getEndPosition().getRow(), oldColumn);
+        ChessPosition oldPosition = ChessPosition.of(move.getEndPosition().getRow(), oldColumn);
 
-        ChessPosition newPosition = new ChessPosition(move.getEndPosition().getRow(),
+        ChessPosition newPosition = ChessPosition.of(move.getEndPosition().getRow(),
                 (move.getStartPosition().getColumn() + move.getEndPosition().getColumn()) / 2);
 
         board.addPiece(newPosition, board.getPiece(oldPosition));
@@ -124,25 +105,6 @@ public class CastlingRules implements ExtraRuleset {
     }
 
 
-    private ChessMove singleCastlingMove(ChessBoard board, ChessGame.TeamColor color, boolean kingSide) {
-        if (ChessGame.isInCheck(color, board)) return null;
-
-        int row = (color == ChessGame.TeamColor.WHITE) ? 1 : 8;
-        int col = (kingSide) ? 6 : 4;
-
-        for (int i = col; i < 8 && i > 1; i += col - 5) {
-            if (board.getPiece(new ChessPosition(row, i)) != null) return null;
-        }
-
-        ChessPosition orig = new ChessPosition(row, 5);
-        ChessMove between = new ChessMove(orig, new ChessPosition(row, col));
-        if (host.isMoveInvalid(between, board)) return null;
-
-        ChessMove out = new ChessMove(orig, new ChessPosition(row, 5 + 2 * (col - 5)));
-        return (host.isMoveInvalid(out, board)) ? null : out;
-    }
-
-
     @Override
     public int hashCode() {
         return Arrays.hashCode(castlingOptions);
@@ -2,8 +2,6 @@ package chess.ruleset.extra;
 
 import chess.*;
 
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.Objects;
 
 public class EnPassantRules implements ExtraRuleset {
@@ -17,6 +15,19 @@ public class EnPassantRules implements ExtraRuleset {
     }
 
 
+    /**
+     * @return the pawn that just moved two squares and can be taken en passant, or null if there isn't one
+     */
+    public ChessPosition getEnPassantPosition() {
+        return enPassantPosition;
+    }
+
+
+    public void setEnPassantPosition(ChessPosition enPassantPosition) {
+        this.enPassantPosition = enPassantPosition;
+    }
+
+
     public void moveMade(ChessMove move, ChessBoard board) {
         ChessPiece piece = board.getPiece(move.getEndPosition());
         if (piece.getPieceType() == ChessPiece.PieceType.PAWN &&
@@ -35,29 +46,6 @@ public class EnPassantRules implements ExtraRuleset {
     }
 
 
-    @Override
-    public Collection<ChessMove> validMoves(ChessBoard board, ChessPosition position) {
-        Collection<ChessMove> ret = new HashSet<>();
-
-        if (enPassantPosition == null) return ret;
-
-        ChessPiece piece = board.getPiece(position);
-
-        if (piece == null || piece.getPieceType() != ChessPiece.PieceType.PAWN) return ret;
-
-        if (enPassantPosition.getRow() == position.getRow() &&
-                Math.abs(enPassantPosition.getColumn() - position.getColumn()) == 1) {
-            int row = position.getRow();
-            if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) row++;
-            else row--;
-
-            ret.add(new ChessMove(position, new ChessPosition(row, enPassantPosition.getColumn())));
-        }
-
-        return ret;
-    }
-
-
     public void performMove(ChessMove move, ChessBoard board) throws InvalidMoveException {
         ChessPiece piece = board.getPiece(move.getStartPosition());
         if (enPassantPosition == null || piece.getPieceType() != ChessPiece.PieceType.PAWN ||
@@ -2,8 +2,10 @@ package chess.ruleset.extra;
 
 import chess.*;
 
-import java.util.Collection;
-
+/**
+ * State for a special move, kept up to date as moves are made. Which special moves are available is worked out by
+ * the move generator, from the state these rules keep.
+ */
 public interface ExtraRuleset {
     void setBoard(ChessBoard board);
 
@@ -11,7 +13,5 @@ public interface ExtraRuleset {
 
     boolean moveMatches(ChessMove move, ChessBoard board);
 
-    Collection<ChessMove> validMoves(ChessBoard board, ChessPosition position);
-
     void performMove(ChessMove move, ChessBoard board) throws InvalidMoveException;
 }
@@ -0,0 +1,262 @@
+package chess.ruleset.piece;
+
+import chess.ChessGame;
+
+/**
+ * Precomputed attack bitboards. Knights, kings and pawns use a plain table per square, while sliding pieces use
+ * magic bitboards.
+ * <p>
+ * For every square, the squares whose occupancy can block a rook or bishop (the "relevant" squares) are masked out
+ * of the board's occupancy, multiplied by a magic number and shifted down to index a table of attack sets. The magic
+ * numbers below were found by random search; the tables they index are filled once when the class loads.
+ * <p>
+ * Squares are numbered {@code (row - 1) * 8 + (column - 1)}, so bit 0 is a1 and bit 63 is h8.
+ */
+public final class AttackTables {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MAGIC_NUMBERS = {
+            0x0880004000801022L, 0x4440200440021000L, 0x088008D002200080L, 0x2500209000090004L,
+            0x1080040068008022L, 0x2200010842004410L, 0x1500008409000200L, 0x020000804029040AL,
+            0x4800800040008020L, 0x2082002200410082L, 0x0301001041082000L, 0xC041808008003000L,
+            0x00A4800400800800L, 0x0010800200800400L, 0x0184800100020080L, 0x0040800040802100L,
+            0x4000848004400060L, 0x8684444010002000L, 0x2006820010204200L, 0x0000090021001000L,
+            0x2009010008001004L, 0x900C008004020080L, 0x4108040001100288L, 0x5020220000804114L,
+            0x0080034240002000L, 0x03D0104040002000L, 0x4000100480200480L, 0x0040401200200A00L,
+            0x1032000600102008L, 0x0B820002801C0080L, 0x080A004200011488L, 0x0002908200140041L,
+            0x0080002000400040L, 0x10E0804000802003L, 0x0220100080802000L, 0x2204805004800801L,
+            0xC805004413000800L, 0x0050020080800400L, 0x0010800100800200L, 0x0004008502000864L,
+            0x0002008100420020L, 0x000150002008C000L, 0x090C410020090010L, 0x88422200400A0011L,
+            0x0008002040040400L, 0x0002001004020008L, 0x00008D2842040010L, 0x4204410080420004L,
+            0x0040800821004100L, 0x0200842000400480L, 0x0020620140B68200L, 0x80100008E1510100L,
+            0x0080800801040180L, 0x0803000804000300L, 0x0000080162300400L, 0x4002108041040200L,
+            0x8200102040800101L, 0x4602400016210481L, 0x08000A0040102082L, 0x0410210108100005L,
+            0x1011001008000423L, 0x11B1000400020801L, 0x0000012200881004L, 0x000008204401008AL
+    };
+
+    private static final long[] BISHOP_MAGIC_NUMBERS = {
+            0x08040104010A0A00L, 0x20080800C4004040L, 0x211008B0A1010804L, 0x0108061840900088L,
+            0x0210882000442020L, 0x3009045241040400L, 0xC010A80802100046L, 0x02018A0802010400L,
+            0x080010111001204AL, 0x0080041024005080L, 0x8140418103010080L, 0x0040640428800614L,
+            0x0000411041302012L, 0x0022008820880490L, 0x402000450C10C080L, 0x1454020704925000L,
+            0x4044000988080800L, 0x02A0000404041044L, 0x05020030102A0320L, 0x020420180A0060A8L,
+            0x8882004C02110000L, 0x0083000200514404L, 0x002C040209046208L, 0x2285180044008409L,
+            0x2002081020481020L, 0x1004020004884820L, 0x02180A000C4A0600L, 0x0480802008020020L,
+            0x0481020004008400L, 0x0470030001806104L, 0x4304084404210408L, 0x0002890040844802L,
+            0x2201200800105020L, 0x8803A49001201200L, 0x0400222408480800L, 0x0004208020080200L,
+            0x0008020010040900L, 0x1002004100021008L, 0x0002108A00010800L, 0x3050810100A04410L,
+            0x0024100808230400L, 0x10010410AA004420L, 0x01000C0048002401L, 0x0081011414041800L,
+            0x0400812012000100L, 0x0040182804204840L, 0x0144100220420A00L, 0x0410020216204040L,
+            0x8006010420050020L, 0x48120280D8082001L, 0x8000428048280000L, 0x1000230042020081L,
+            0x8244A21002120340L, 0x0100081001820880L, 0x0421044102340000L, 0x0004114802008404L,
+            0x2080842110022010L, 0x0020007309082000L, 0x1010200052080400L, 0x4201009200460800L,
+            0x00084040E014A401L, 0x2101004011240121L, 0x0520404204840080L, 0x0A4C907009012380L
+    };
+
+    private static final Magic[] ROOK_MAGICS = new Magic[64];
+
+    private static final Magic[] BISHOP_MAGICS = new Magic[64];
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+
+    private static final long[] KING_ATTACKS = new long[64];
+
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[][] BETWEEN = new long[64][64];
+
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            ROOK_MAGICS[square] = buildMagic(square, ROOK_DIRECTIONS, ROOK_MAGIC_NUMBERS[square]);
+            BISHOP_MAGICS[square] = buildMagic(square, BISHOP_DIRECTIONS, BISHOP_MAGIC_NUMBERS[square]);
+        }
+
+        int[][] knightOffsets = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] kingOffsets = {{1, -1}, {1, 0}, {1, 1}, {0, -1}, {0, 1}, {-1, -1}, {-1, 0}, {-1, 1}};
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = offsetAttacks(square, knightOffsets);
+            KING_ATTACKS[square] = offsetAttacks(square, kingOffsets);
+            PAWN_ATTACKS[0][square] = offsetAttacks(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN_ATTACKS[1][square] = offsetAttacks(square, new int[][]{{-1, -1}, {-1, 1}});
+        }
+
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                if (from == to) continue;
+                long ends = (1L << from) | (1L << to);
+                if ((rookAttacks(from, 0) & (1L << to)) != 0) {
+                    BETWEEN[from][to] = rookAttacks(from, 1L << to) & rookAttacks(to, 1L << from);
+                    LINE[from][to] = (rookAttacks(from, 0) & rookAttacks(to, 0)) | ends;
+                } else if ((bishopAttacks(from, 0) & (1L << to)) != 0) {
+                    BETWEEN[from][to] = bishopAttacks(from, 1L << to) & bishopAttacks(to, 1L << from);
+                    LINE[from][to] = (bishopAttacks(from, 0) & bishopAttacks(to, 0)) | ends;
+                }
+            }
+        }
+    }
+
+
+    private AttackTables() {}
+
+
+    /**
+     * @param square   square the rook is on
+     * @param occupied bitboard of every occupied square
+     * @return bitboard of every square the rook attacks, including the first blocker in each direction
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_MAGICS[square].attacks(occupied);
+    }
+
+
+    /**
+     * @param square   square the bishop is on
+     * @param occupied bitboard of every occupied square
+     * @return bitboard of every square the bishop attacks, including the first blocker in each direction
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_MAGICS[square].attacks(occupied);
+    }
+
+
+    /**
+     * @param square   square the queen is on
+     * @param occupied bitboard of every occupied square
+     * @return bitboard of every square the queen attacks, including the first blocker in each direction
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+
+    /**
+     * @param square square the knight is on
+     * @return bitboard of every square the knight attacks
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+
+    /**
+     * @param square square the king is on
+     * @return bitboard of every square the king attacks
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+
+    /**
+     * @param color  color of the pawn
+     * @param square square the pawn is on
+     * @return bitboard of the (at most two) squares the pawn attacks diagonally
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+
+    /**
+     * @return bitboard of the squares strictly between the two squares if they share a rank, file or diagonal,
+     * otherwise 0
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+
+    /**
+     * @return bitboard of the whole rank, file or diagonal running through both squares, or 0 if they don't share one
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+
+    private static long offsetAttacks(int square, int[][] offsets) {
+        long attacks = 0;
+        for (int[] offset : offsets) {
+            int row = square / 8 + offset[0];
+            int col = square % 8 + offset[1];
+            if (onBoard(row, col)) attacks |= 1L << (row * 8 + col);
+        }
+        return attacks;
+    }
+
+
+    private static Magic buildMagic(int square, int[][] directions, long magic) {
+        long mask = relevantOccupancy(square, directions);
+        int bits = Long.bitCount(mask);
+        long[] table = new long[1 << bits];
+        boolean[] filled = new boolean[table.length];
+
+        // Walk every subset of the mask (Carry-Rippler) and store its attack set at the magic index
+        long subset = 0;
+        do {
+            int index = (int) ((subset * magic) >>> (64 - bits));
+            long attacks = slidingAttacks(square, subset, directions);
+            if (filled[index] && table[index] != attacks) {
+                throw new IllegalStateException("Magic number for square " + square + " has a collision");
+            }
+            filled[index] = true;
+            table[index] = attacks;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        return new Magic(mask, magic, 64 - bits, table);
+    }
+
+
+    private static long relevantOccupancy(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] direction : directions) {
+            int row = square / 8 + direction[0];
+            int col = square % 8 + direction[1];
+            // The last square of each ray is never a blocker that matters, so it is left out of the mask
+            while (onBoard(row + direction[0], col + direction[1])) {
+                mask |= 1L << (row * 8 + col);
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int row = square / 8 + direction[0];
+            int col = square % 8 + direction[1];
+            while (onBoard(row, col)) {
+                long bit = 1L << (row * 8 + col);
+                attacks |= bit;
+                if ((occupied & bit) != 0) break;
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 0 && row < 8 && col >= 0 && col < 8;
+    }
+
+
+    private record Magic(long mask, long magic, int shift, long[] table) {
+
+        long attacks(long occupied) {
+            return table[(int) (((occupied & mask) * magic) >>> shift)];
+        }
+
+    }
+
+}
@@ -6,8 +6,14 @@ import chess.ChessPosition;
 
 import java.util.Collection;
 
+/**
+ * Moves for one type of piece. Every piece's moves now come from the same generator as {@link chess.ChessGame}'s, so
+ * by default this is {@link chess.ChessPiece#pieceMoves} for the piece on the square.
+ */
 public interface PieceRuleset {
 
-    Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition);
+    default Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        return board.getPiece(myPosition).pieceMoves(board, myPosition);
+    }
 
 }
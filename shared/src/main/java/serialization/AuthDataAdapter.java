@@ -0,0 +1,37 @@
+package serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import model.AuthData;
+
+import java.io.IOException;
+
+final class AuthDataAdapter extends TypeAdapter<AuthData> {
+
+    @Override
+    public void write(JsonWriter out, AuthData auth) throws IOException {
+        out.beginObject();
+        out.name("authToken").value(auth.authToken());
+        out.name("username").value(auth.username());
+        out.endObject();
+    }
+
+
+    @Override
+    public AuthData read(JsonReader in) throws IOException {
+        String authToken = null;
+        String username = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "authToken" -> authToken = Serialization.readString(in);
+                case "username" -> username = Serialization.readString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new AuthData(authToken, username);
+    }
+
+}
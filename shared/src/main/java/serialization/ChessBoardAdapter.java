@@ -0,0 +1,140 @@
+package serialization;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes boards as the piece placement field of FEN, such as {@code "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"}.
+ * <p>
+ * Also reads the boards Gson's reflection wrote before this adapter existed, so games already stored can still be
+ * loaded: the original 8x8 array of pieces in {@code board}, indexed by row and then column, with each piece a
+ * {@code {"teamColor", "pieceType"}} object or null for an empty square, and the later one bitboard per piece in
+ * {@code pieces}.
+ */
+final class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        StringBuilder placement = new StringBuilder(72);
+        board.appendFen(placement);
+        out.value(placement.toString());
+    }
+
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.BEGIN_OBJECT) return readReflective(in);
+        try {
+            return ChessBoard.fromFen(in.nextString());
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+
+
+    /**
+     * Writes a board the way Gson's reflection did when it held an 8x8 array of pieces:
+     * {@code {"board": [[{"teamColor": "WHITE", "pieceType": "ROOK"}, ...], ...]}}
+     */
+    void writePieceArray(JsonWriter out, ChessBoard board) throws IOException {
+        out.beginObject();
+        out.name("board").beginArray();
+        for (int row = 1; row <= 8; row++) {
+            out.beginArray();
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
+                if (piece == null) {
+                    out.nullValue();
+                    continue;
+                }
+                out.beginObject();
+                out.name("teamColor").value(piece.getTeamColor().name());
+                out.name("pieceType").value(piece.getPieceType().name());
+                out.endObject();
+            }
+            out.endArray();
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+
+    private ChessBoard readReflective(JsonReader in) throws IOException {
+        ChessBoard board = new ChessBoard();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "board" -> readPieceArray(in, board);
+                case "pieces" -> readBitboards(in, board);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return board;
+    }
+
+
+    private void readPieceArray(JsonReader in, ChessBoard board) throws IOException {
+        in.beginArray();
+        for (int row = 1; in.hasNext(); row++) {
+            in.beginArray();
+            for (int col = 1; in.hasNext(); col++) {
+                ChessPiece piece = readPiece(in);
+                if (piece == null) continue;
+                if (row > 8 || col > 8) throw new JsonParseException("Board is larger than 8x8 at " + in.getPath());
+                board.addPiece(ChessPosition.of(row, col), piece);
+            }
+            in.endArray();
+        }
+        in.endArray();
+    }
+
+
+    private ChessPiece readPiece(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessGame.TeamColor color = null;
+        ChessPiece.PieceType type = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "teamColor" -> color = Serialization.readEnum(in, ChessGame.TeamColor.class);
+                case "pieceType" -> type = Serialization.readEnum(in, ChessPiece.PieceType.class);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (color == null || type == null) throw new JsonParseException("Piece needs a teamColor and pieceType");
+        return ChessPiece.of(color, type);
+    }
+
+
+    private void readBitboards(JsonReader in, ChessBoard board) throws IOException {
+        ChessGame.TeamColor[] colors = ChessGame.TeamColor.values();
+        ChessPiece.PieceType[] types = ChessPiece.PieceType.values();
+        in.beginArray();
+        //Indexed by color ordinal * 6 + PieceType ordinal
+        for (int index = 0; in.hasNext(); index++) {
+            long pieces = in.nextLong();
+            if (index >= colors.length * types.length) throw new JsonParseException("Too many piece bitboards");
+            ChessPiece piece = ChessPiece.of(colors[index / types.length], types[index % types.length]);
+            while (pieces != 0) {
+                board.addPiece(Long.numberOfTrailingZeros(pieces), piece);
+                pieces &= pieces - 1;
+            }
+        }
+        in.endArray();
+    }
+
+}
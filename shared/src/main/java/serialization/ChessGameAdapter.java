@@ -0,0 +1,90 @@
+package serialization;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes games as their full FEN, which includes the castling options, en passant square and move counters that
+ * Gson's reflection leaves out, plus whether the game is still active:
+ * {@code {"fen": "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", "active": true}}.
+ * <p>
+ * Games are read back through {@link ChessGame#fromFen(String)}, so their castling and en passant rules are set up
+ * for the position. Games written by Gson's reflection, with {@code board} and {@code teamTurn} fields, can also be
+ * read; their castling options are worked out from where the kings and rooks stand.
+ * <p>
+ * So that clients built for that shape keep working for a release, games are also written with the original
+ * {@code board} and {@code teamTurn} fields after the FEN, unless the {@code chess.json.legacyGame} system property is
+ * false. Readers that understand {@code fen} skip them.
+ */
+final class ChessGameAdapter extends TypeAdapter<ChessGame> {
+
+    private static final boolean WRITE_LEGACY =
+            Boolean.parseBoolean(System.getProperty("chess.json.legacyGame", "true"));
+
+    private final ChessBoardAdapter boardAdapter = new ChessBoardAdapter();
+
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        out.beginObject();
+        out.name("fen").value(game.toFen());
+        out.name("active").value(game.isActive());
+        if (WRITE_LEGACY) {
+            out.name("board");
+            boardAdapter.writePieceArray(out, game.getBoard());
+            out.name("teamTurn").value(game.getTeamTurn().name());
+        }
+        out.endObject();
+    }
+
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        String fen = null;
+        ChessBoard board = null;
+        ChessGame.TeamColor teamTurn = null;
+        boolean active = true;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "fen" -> fen = Serialization.readString(in);
+                case "active" -> active = in.nextBoolean();
+                //The FEN comes first and says everything these do
+                case "board" -> {
+                    if (fen == null) board = Serialization.read(boardAdapter, in);
+                    else in.skipValue();
+                }
+                case "teamTurn" -> {
+                    if (fen == null) teamTurn = Serialization.readEnum(in, ChessGame.TeamColor.class);
+                    else in.skipValue();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        ChessGame game;
+        if (fen != null) {
+            try {
+                game = ChessGame.fromFen(fen);
+            } catch (IllegalArgumentException e) {
+                throw new JsonParseException(e.getMessage(), e);
+            }
+        } else if (board != null) {
+            game = new ChessGame();
+            game.setBoard(board);
+            if (teamTurn != null) game.setTeamTurn(teamTurn);
+        } else {
+            throw new JsonParseException("Game needs a fen or board");
+        }
+        game.setActive(active);
+        return game;
+    }
+
+}
@@ -0,0 +1,60 @@
+package serialization;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes moves with the same fields Gson's reflection uses, {@code startPosition}, {@code endPosition} and
+ * {@code promotionPiece} (left out when there isn't one), and reads them back as the shared instances from
+ * {@link ChessMove#of(ChessPosition, ChessPosition, ChessPiece.PieceType)}
+ */
+final class ChessMoveAdapter extends TypeAdapter<ChessMove> {
+
+    private final ChessPositionAdapter positionAdapter = new ChessPositionAdapter();
+
+
+    @Override
+    public void write(JsonWriter out, ChessMove move) throws IOException {
+        out.beginObject();
+        //Same field order as the class declares, so the text matches what reflection wrote
+        out.name("endPosition");
+        positionAdapter.write(out, move.getEndPosition());
+        if (move.getPromotionPiece() != null) out.name("promotionPiece").value(move.getPromotionPiece().name());
+        out.name("startPosition");
+        positionAdapter.write(out, move.getStartPosition());
+        out.endObject();
+    }
+
+
+    @Override
+    public ChessMove read(JsonReader in) throws IOException {
+        ChessPosition start = null;
+        ChessPosition end = null;
+        ChessPiece.PieceType promotion = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "startPosition" -> start = Serialization.read(positionAdapter, in);
+                case "endPosition" -> end = Serialization.read(positionAdapter, in);
+                case "promotionPiece" -> promotion = Serialization.readEnum(in, ChessPiece.PieceType.class);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (start == null || end == null) throw new JsonParseException("Move needs a start and end position");
+        try {
+            return ChessMove.of(start, end, promotion);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package serialization;
+
+import chess.ChessPosition;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes positions as {@code {"row": 2, "col": 5}}, the same fields Gson's reflection uses, and reads them back as the
+ * shared instances from {@link ChessPosition#of(int, int)}
+ */
+final class ChessPositionAdapter extends TypeAdapter<ChessPosition> {
+
+    @Override
+    public void write(JsonWriter out, ChessPosition position) throws IOException {
+        out.beginObject();
+        out.name("row").value(position.getRow());
+        out.name("col").value(position.getColumn());
+        out.endObject();
+    }
+
+
+    @Override
+    public ChessPosition read(JsonReader in) throws IOException {
+        int row = 0;
+        int col = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "row" -> row = Serialization.readInt(in);
+                case "col" -> col = Serialization.readInt(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        try {
+            return ChessPosition.of(row, col);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package serialization;
+
+import chess.ChessGame;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import model.GameData;
+
+import java.io.IOException;
+
+final class GameDataAdapter extends TypeAdapter<GameData> {
+
+    private final ChessGameAdapter gameAdapter = new ChessGameAdapter();
+
+
+    @Override
+    public void write(JsonWriter out, GameData game) throws IOException {
+        out.beginObject();
+        out.name("gameID").value(game.gameID());
+        out.name("whiteUsername").value(game.whiteUsername());
+        out.name("blackUsername").value(game.blackUsername());
+        out.name("gameName").value(game.gameName());
+        if (game.game() != null) {
+            out.name("game");
+            gameAdapter.write(out, game.game());
+        }
+        out.endObject();
+    }
+
+
+    @Override
+    public GameData read(JsonReader in) throws IOException {
+        int gameID = 0;
+        String whiteUsername = null;
+        String blackUsername = null;
+        String gameName = null;
+        ChessGame game = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "gameID" -> gameID = Serialization.readInt(in);
+                case "whiteUsername" -> whiteUsername = Serialization.readString(in);
+                case "blackUsername" -> blackUsername = Serialization.readString(in);
+                case "gameName" -> gameName = Serialization.readString(in);
+                case "game" -> game = Serialization.read(gameAdapter, in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new GameData(gameID, whiteUsername, blackUsername, gameName, game);
+    }
+
+}
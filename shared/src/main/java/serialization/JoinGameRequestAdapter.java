@@ -0,0 +1,38 @@
+package serialization;
+
+import chess.ChessGame;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import model.JoinGameRequest;
+
+import java.io.IOException;
+
+final class JoinGameRequestAdapter extends TypeAdapter<JoinGameRequest> {
+
+    @Override
+    public void write(JsonWriter out, JoinGameRequest request) throws IOException {
+        out.beginObject();
+        if (request.playerColor() != null) out.name("playerColor").value(request.playerColor().name());
+        out.name("gameID").value(request.gameID());
+        out.endObject();
+    }
+
+
+    @Override
+    public JoinGameRequest read(JsonReader in) throws IOException {
+        ChessGame.TeamColor playerColor = null;
+        int gameID = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "playerColor" -> playerColor = Serialization.readEnum(in, ChessGame.TeamColor.class);
+                case "gameID" -> gameID = Serialization.readInt(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new JoinGameRequest(playerColor, gameID);
+    }
+
+}
@@ -0,0 +1,54 @@
+package serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.GameData;
+import model.ListGamesResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+
+final class ListGamesResponseAdapter extends TypeAdapter<ListGamesResponse> {
+
+    private final GameDataAdapter gameAdapter = new GameDataAdapter();
+
+
+    @Override
+    public void write(JsonWriter out, ListGamesResponse response) throws IOException {
+        out.beginObject();
+        if (response.games() != null) {
+            out.name("games").beginArray();
+            for (GameData game : response.games()) {
+                if (game == null) out.nullValue();
+                else gameAdapter.write(out, game);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+
+    @Override
+    public ListGamesResponse read(JsonReader in) throws IOException {
+        Collection<GameData> games = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("games") && in.peek() == JsonToken.BEGIN_ARRAY) {
+                games = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    games.add(Serialization.read(gameAdapter, in));
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new ListGamesResponse(games);
+    }
+
+}
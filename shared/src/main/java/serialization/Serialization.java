@@ -0,0 +1,108 @@
+package serialization;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import model.*;
+import webSocketMessages.serverMessages.ServerMessage;
+import webSocketMessages.userCommands.UserGameCommand;
+
+import java.io.IOException;
+
+/**
+ * Holds the one {@link Gson} the client and server share, set up with hand-written streaming adapters for the chess,
+ * model and WebSocket message types. The adapters skip Gson's reflection, build objects through their constructors
+ * and factories, and give games a compact form built on FEN.
+ * <p>
+ * Gson instances are thread safe, so the same one is used everywhere rather than creating one per call.
+ */
+public final class Serialization {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(ChessPosition.class, new ChessPositionAdapter().nullSafe())
+            .registerTypeAdapter(ChessMove.class, new ChessMoveAdapter().nullSafe())
+            .registerTypeAdapter(ChessBoard.class, new ChessBoardAdapter().nullSafe())
+            .registerTypeAdapter(ChessGame.class, new ChessGameAdapter().nullSafe())
+            .registerTypeAdapter(UserGameCommand.class, new UserGameCommandAdapter().nullSafe())
+            .registerTypeAdapter(ServerMessage.class, new ServerMessageAdapter().nullSafe())
+            .registerTypeAdapter(AuthData.class, new AuthDataAdapter().nullSafe())
+            .registerTypeAdapter(UserData.class, new UserDataAdapter().nullSafe())
+            .registerTypeAdapter(GameData.class, new GameDataAdapter().nullSafe())
+            .registerTypeAdapter(JoinGameRequest.class, new JoinGameRequestAdapter().nullSafe())
+            .registerTypeAdapter(ListGamesResponse.class, new ListGamesResponseAdapter().nullSafe())
+            .create();
+
+
+    private Serialization() {}
+
+
+    /**
+     * @return the shared, thread safe Gson
+     */
+    public static Gson getGson() {
+        return GSON;
+    }
+
+
+    /**
+     * Reads a string, or null if the value is JSON null
+     */
+    static String readString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+
+    /**
+     * Reads an int, treating JSON null as 0 the way Gson's reflection does for primitive fields
+     */
+    static int readInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonParseException("Expected an integer at " + in.getPath(), e);
+        }
+    }
+
+
+    /**
+     * Reads an enum constant by name. Unknown names and JSON null read as null, as they do with Gson's own enum
+     * handling.
+     */
+    static <E extends Enum<E>> E readEnum(JsonReader in, Class<E> type) throws IOException {
+        String name = readString(in);
+        if (name == null) return null;
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Reads a value with another adapter, where the value may be JSON null
+     */
+    static <T> T read(TypeAdapter<T> adapter, JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return adapter.read(in);
+    }
+
+}
@@ -0,0 +1,61 @@
+package serialization;
+
+import chess.ChessGame;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import webSocketMessages.serverMessages.ServerMessage;
+
+import java.io.IOException;
+
+/**
+ * Writes server messages with the same fields Gson's reflection uses, and reads them back through the constructor
+ * that matches the message type
+ */
+final class ServerMessageAdapter extends TypeAdapter<ServerMessage> {
+
+    private final ChessGameAdapter gameAdapter = new ChessGameAdapter();
+
+
+    @Override
+    public void write(JsonWriter out, ServerMessage message) throws IOException {
+        out.beginObject();
+        out.name("serverMessageType").value(message.getServerMessageType().name());
+        if (message.getGame() != null) {
+            out.name("game");
+            gameAdapter.write(out, message.getGame());
+        }
+        if (message.getMessage() != null) out.name("message").value(message.getMessage());
+        if (message.getErrorMessage() != null) out.name("errorMessage").value(message.getErrorMessage());
+        out.endObject();
+    }
+
+
+    @Override
+    public ServerMessage read(JsonReader in) throws IOException {
+        ServerMessage.ServerMessageType type = null;
+        ChessGame game = null;
+        String message = null;
+        String errorMessage = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "serverMessageType" -> type = Serialization.readEnum(in, ServerMessage.ServerMessageType.class);
+                case "game" -> game = Serialization.read(gameAdapter, in);
+                case "message" -> message = Serialization.readString(in);
+                case "errorMessage" -> errorMessage = Serialization.readString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (type == null) throw new JsonParseException("Message needs a valid serverMessageType");
+        return switch (type) {
+            case LOAD_GAME -> new ServerMessage(game);
+            case ERROR -> new ServerMessage(type, errorMessage);
+            case NOTIFICATION -> new ServerMessage(type, message);
+        };
+    }
+
+}
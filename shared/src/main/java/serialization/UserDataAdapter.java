@@ -0,0 +1,40 @@
+package serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import model.UserData;
+
+import java.io.IOException;
+
+final class UserDataAdapter extends TypeAdapter<UserData> {
+
+    @Override
+    public void write(JsonWriter out, UserData user) throws IOException {
+        out.beginObject();
+        out.name("username").value(user.username());
+        out.name("password").value(user.password());
+        out.name("email").value(user.email());
+        out.endObject();
+    }
+
+
+    @Override
+    public UserData read(JsonReader in) throws IOException {
+        String username = null;
+        String password = null;
+        String email = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "username" -> username = Serialization.readString(in);
+                case "password" -> password = Serialization.readString(in);
+                case "email" -> email = Serialization.readString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new UserData(username, password, email);
+    }
+
+}
@@ -0,0 +1,87 @@
+package serialization;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import webSocketMessages.userCommands.UserGameCommand;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Writes commands with the same fields Gson's reflection uses, and reads them back through the constructor that
+ * matches the command type
+ */
+final class UserGameCommandAdapter extends TypeAdapter<UserGameCommand> {
+
+    private final ChessMoveAdapter moveAdapter = new ChessMoveAdapter();
+
+
+    @Override
+    public void write(JsonWriter out, UserGameCommand command) throws IOException {
+        out.beginObject();
+        if (command.getCommandType() != null) out.name("commandType").value(command.getCommandType().name());
+        out.name("authToken").value(command.getAuthString());
+        out.name("gameID").value(command.getGameID());
+        if (command.getPlayerColor() != null) out.name("playerColor").value(command.getPlayerColor().name());
+        if (command.getMove() != null) {
+            out.name("move");
+            moveAdapter.write(out, command.getMove());
+        }
+        Set<UserGameCommand.Capability> capabilities = command.getCapabilities();
+        if (!capabilities.isEmpty()) {
+            out.name("capabilities").beginArray();
+            for (UserGameCommand.Capability capability : capabilities) {
+                out.value(capability.name());
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+
+    @Override
+    public UserGameCommand read(JsonReader in) throws IOException {
+        UserGameCommand.CommandType type = null;
+        String authToken = null;
+        int gameID = 0;
+        ChessGame.TeamColor playerColor = null;
+        ChessMove move = null;
+        Set<UserGameCommand.Capability> capabilities = EnumSet.noneOf(UserGameCommand.Capability.class);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "commandType" -> type = Serialization.readEnum(in, UserGameCommand.CommandType.class);
+                case "authToken" -> authToken = Serialization.readString(in);
+                case "gameID" -> gameID = Serialization.readInt(in);
+                case "playerColor" -> playerColor = Serialization.readEnum(in, ChessGame.TeamColor.class);
+                case "move" -> move = Serialization.read(moveAdapter, in);
+                case "capabilities" -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        UserGameCommand.Capability capability =
+                                Serialization.readEnum(in, UserGameCommand.Capability.class);
+                        //Capabilities this build doesn't know about are ignored
+                        if (capability != null) capabilities.add(capability);
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (type == null) throw new JsonParseException("Command needs a valid commandType");
+        UserGameCommand command = switch (type) {
+            case JOIN_PLAYER -> new UserGameCommand(authToken, gameID, playerColor);
+            case MAKE_MOVE -> new UserGameCommand(authToken, gameID, move);
+            default -> new UserGameCommand(type, authToken, gameID);
+        };
+        return command.withCapabilities(capabilities.toArray(new UserGameCommand.Capability[0]));
+    }
+
+}
@@ -3,7 +3,10 @@ package webSocketMessages.userCommands;
 import chess.ChessGame;
 import chess.ChessMove;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Represents a command a user can send the server over a websocket
@@ -37,12 +40,30 @@ public class UserGameCommand {
         RESIGN
     }
 
+    /**
+     * Optional features a client can ask for when it joins a game. Clients that don't list any get plain JSON
+     * messages.
+     */
+    public enum Capability {
+        /**
+         * Send LOAD_GAME as a binary frame holding the game encoded with {@link chess.GameCodec}
+         */
+        BINARY_GAME,
+        /**
+         * Send the LOAD_GAME and NOTIFICATION for another player's move together in one frame. Without
+         * {@link #BINARY_GAME} that is a text frame holding a JSON array of the two messages. With it, the binary
+         * LOAD_GAME frame has the NOTIFICATION's JSON in UTF-8 after the encoded game.
+         */
+        BATCHED_MOVES
+    }
+
     protected CommandType commandType;
 
     private final String authToken;
     private Integer gameID;
     private ChessGame.TeamColor playerColor;
     private ChessMove move;
+    private Set<Capability> capabilities;
 
     public String getAuthString() {
         return authToken;
@@ -68,6 +89,27 @@ public class UserGameCommand {
     }
 
 
+    /**
+     * @return the optional features the client asked for, which is empty if it didn't list any
+     */
+    public Set<Capability> getCapabilities() {
+        Set<Capability> ret = EnumSet.noneOf(Capability.class);
+        if (capabilities != null) ret.addAll(capabilities);
+        return ret;
+    }
+
+
+    /**
+     * @param capabilities optional features to ask for, which the server reads from JOIN_PLAYER and JOIN_OBSERVER
+     * @return this command
+     */
+    public UserGameCommand withCapabilities(Capability... capabilities) {
+        this.capabilities = EnumSet.noneOf(Capability.class);
+        Collections.addAll(this.capabilities, capabilities);
+        return this;
+    }
+
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -0,0 +1,78 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static passoffTests.TestFactory.loadBoard;
+
+public class AllocationTests {
+
+    @Test
+    public void generateMovesDoesNotAllocate() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """));
+        //Leave an en passant capture available for black as well
+        game.makeMove(new ChessMove(new ChessPosition(2, 1), new ChessPosition(4, 1)));
+
+        MoveList moves = new MoveList();
+        for (int i = 0; i < 20_000; i++) {
+            moves.clear();
+            game.generateMoves(ChessGame.TeamColor.BLACK, moves);
+            game.generateMoves(ChessGame.TeamColor.WHITE, moves);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        //A stray allocation by the JIT or the JVM can land in any one run, so take the best of several. Even one small
+        //object per iteration would be at least 16 bytes each, far above the bound.
+        int iterations = 1_000;
+        long fewest = Long.MAX_VALUE;
+        for (int run = 0; run < 10; run++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                moves.clear();
+                game.generateMoves(ChessGame.TeamColor.BLACK, moves);
+                game.generateMoves(ChessGame.TeamColor.WHITE, moves);
+            }
+            fewest = Math.min(fewest, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+
+        Assertions.assertTrue((double) fewest / iterations < 1,
+                "Generating moves into a reused list should not allocate, but allocated " + fewest + " bytes over " +
+                        iterations + " iterations");
+        Assertions.assertTrue(moves.contains(PackedMove.encode(25, 16, PackedMove.EN_PASSANT)),
+                "Black's en passant capture should be generated");
+        Assertions.assertTrue(moves.contains(PackedMove.encode(4, 2, PackedMove.CASTLING)),
+                "White's queen side castle should be generated");
+    }
+
+
+    @Test
+    public void packedMovesRoundTrip() {
+        int move = PackedMove.encodePromotion(52, 61, ChessPiece.PieceType.KNIGHT);
+        Assertions.assertEquals(52, PackedMove.from(move));
+        Assertions.assertEquals(61, PackedMove.to(move));
+        Assertions.assertEquals(PackedMove.PROMOTION, PackedMove.flag(move));
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, PackedMove.promotionPiece(move));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(7, 5), new ChessPosition(8, 6),
+                ChessPiece.PieceType.KNIGHT), PackedMove.toChessMove(move));
+        Assertions.assertEquals(0, move >>> 16, "Packed moves should fit in 16 bits");
+    }
+
+}
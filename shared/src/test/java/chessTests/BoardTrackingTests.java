@@ -0,0 +1,78 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static passoffTests.TestFactory.loadBoard;
+
+public class BoardTrackingTests {
+
+    @Test
+    public void startingPositionTracking() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        Assertions.assertEquals(39, board.getMaterial(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(39, board.getMaterial(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(new ChessPosition(1, 5), board.getKingPosition(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(new ChessPosition(8, 5), board.getKingPosition(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(16, board.getPiecePositions(ChessGame.TeamColor.WHITE).size());
+    }
+
+
+    @Test
+    public void trackingFollowsMovesAndCaptures() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | |P| |
+                | | | | | | | | |
+                | | | |q| | | | |
+                | | | | | | | | |
+                | | | | |N| | | |
+                | | | | | | | | |
+                | | | |K| | | | |
+                """));
+
+        game.makeMove(new ChessMove(new ChessPosition(3, 5), new ChessPosition(5, 4)));
+        Assertions.assertEquals(4, game.getBoard().getMaterial(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0, game.getBoard().getMaterial(ChessGame.TeamColor.BLACK),
+                "Captured queen should no longer count as material");
+
+        game.makeMove(new ChessMove(new ChessPosition(8, 5), new ChessPosition(7, 6)));
+        Assertions.assertEquals(new ChessPosition(7, 6), game.getBoard().getKingPosition(ChessGame.TeamColor.BLACK));
+
+        game.makeMove(new ChessMove(new ChessPosition(7, 7), new ChessPosition(8, 7), ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(12, game.getBoard().getMaterial(ChessGame.TeamColor.WHITE),
+                "Promotion should swap the pawn's value for the queen's");
+        Assertions.assertEquals(List.of(new ChessPosition(1, 4), new ChessPosition(5, 4), new ChessPosition(8, 7)),
+                game.getBoard().getPiecePositions(ChessGame.TeamColor.WHITE));
+    }
+
+
+    @Test
+    public void trackingSurvivesCopyAndMissingKing() {
+        ChessBoard board = loadBoard("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |r| | | | |
+                | | | | | | | | |
+                | | | | |B| | | |
+                | | | | | | | | |
+                | | | |K| | | | |
+                """);
+        ChessBoard copy = new ChessBoard(board);
+        copy.addPiece(new ChessPosition(3, 5), null);
+
+        Assertions.assertEquals(3, board.getMaterial(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0, copy.getMaterial(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(5, copy.getMaterial(ChessGame.TeamColor.BLACK));
+        Assertions.assertNull(copy.getKingPosition(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(-1, copy.getKingSquare(ChessGame.TeamColor.BLACK));
+    }
+
+}
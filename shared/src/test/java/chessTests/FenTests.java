@@ -0,0 +1,118 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class FenTests {
+
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+            "4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 40",
+    };
+
+
+    @Test
+    public void roundTrip() {
+        for (String fen : POSITIONS) {
+            Assertions.assertEquals(fen, ChessGame.fromFen(fen).toFen());
+        }
+    }
+
+
+    @Test
+    public void startingPosition() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(POSITIONS[0], game.toFen());
+        Assertions.assertEquals(game, ChessGame.fromFen(POSITIONS[0]));
+        Assertions.assertEquals(game.positionKey(), ChessGame.fromFen(POSITIONS[0]).positionKey());
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", game.getBoard().toString());
+    }
+
+
+    @Test
+    public void countersFollowMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6)));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b KQkq - 1 1", game.toFen());
+
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5)));
+        Assertions.assertEquals("rnbqkbnr/pppp1ppp/8/4p3/8/5N2/PPPPPPPP/RNBQKB1R w KQkq e6 0 2", game.toFen());
+
+        game.makeMove(ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(5, 5)));
+        Assertions.assertEquals("rnbqkbnr/pppp1ppp/8/4N3/8/8/PPPPPPPP/RNBQKB1R b KQkq - 0 2", game.toFen());
+    }
+
+
+    @Test
+    public void unmakeRestoresCounters() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 12 30");
+        MoveList moves = new MoveList();
+        game.generateMoves(game.getTeamTurn(), moves);
+        MoveUndo undo = new MoveUndo();
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i), undo);
+            game.unmakeMove(undo);
+            Assertions.assertEquals("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 12 30", game.toFen());
+        }
+    }
+
+
+    @Test
+    public void randomGamesRoundTrip() throws InvalidMoveException {
+        Random random = new Random(15);
+        MoveList moves = new MoveList();
+        StringBuilder buffer = new StringBuilder();
+        for (int gameNumber = 0; gameNumber < 10; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 80; ply++) {
+                moves.clear();
+                game.generateMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) break;
+                game.makeMove(moves.get(random.nextInt(moves.size())), new MoveUndo());
+
+                buffer.setLength(0);
+                game.appendFen(buffer);
+                ChessGame copy = ChessGame.fromFen(buffer.toString());
+                Assertions.assertEquals(buffer.toString(), copy.toFen());
+                Assertions.assertEquals(game.positionKey(), copy.positionKey());
+            }
+        }
+    }
+
+
+    @Test
+    public void optionalFieldsDefault() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 b");
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", game.toFen());
+    }
+
+
+    @Test
+    public void invalidPositionsRejected() {
+        String[] invalid = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNRR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+        };
+        for (String fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+
+}
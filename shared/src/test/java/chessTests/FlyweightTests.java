@@ -0,0 +1,37 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FlyweightTests {
+
+    @Test
+    public void factoriesReturnSharedEqualInstances() {
+        Assertions.assertSame(ChessPosition.of(3, 5), ChessPosition.of(3, 5));
+        Assertions.assertSame(ChessPosition.of(3, 5), ChessPosition.of(20));
+        Assertions.assertEquals(new ChessPosition(3, 5), ChessPosition.of(3, 5));
+        Assertions.assertEquals(20, new ChessPosition(3, 5).getSquare());
+
+        ChessPiece piece = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        Assertions.assertSame(piece, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT), piece);
+
+        ChessMove move = ChessMove.of(52, 60, ChessPiece.PieceType.ROOK);
+        Assertions.assertSame(move,
+                ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(8, 5), ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(7, 5), new ChessPosition(8, 5),
+                ChessPiece.PieceType.ROOK), move);
+        Assertions.assertNotEquals(ChessMove.of(52, 60), move);
+    }
+
+
+    @Test
+    public void factoriesRejectInvalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessPosition.of(0, 4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessPosition.of(4, 9));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ChessMove.of(52, 60, ChessPiece.PieceType.KING));
+    }
+
+}
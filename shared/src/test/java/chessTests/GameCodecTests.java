@@ -0,0 +1,139 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+public class GameCodecTests {
+
+    @Test
+    public void startingPosition() {
+        ChessGame game = new ChessGame();
+        byte[] bytes = GameCodec.encode(game);
+        Assertions.assertEquals(GameCodec.ENCODED_SIZE, bytes.length);
+        Assertions.assertEquals(GameCodec.VERSION, bytes[0]);
+
+        ChessGame decoded = GameCodec.decode(bytes);
+        Assertions.assertEquals(game, decoded);
+        Assertions.assertEquals(game.toFen(), decoded.toFen());
+        Assertions.assertTrue(decoded.isActive());
+    }
+
+
+    @Test
+    public void fullStateRoundTrips() {
+        String[] positions = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+                "4k3/8/8/8/3pP3/8/8/4K3 b - e3 57 40",
+                "8/8/8/8/8/8/8/8 w - - 0 1",
+        };
+        for (String fen : positions) {
+            ChessGame game = ChessGame.fromFen(fen);
+            game.setActive(false);
+            ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+            Assertions.assertEquals(fen, decoded.toFen());
+            Assertions.assertEquals(game.positionKey(), decoded.positionKey());
+            Assertions.assertFalse(decoded.isActive());
+        }
+    }
+
+
+    @Test
+    public void randomGamesRoundTrip() throws InvalidMoveException {
+        Random random = new Random(16);
+        MoveList moves = new MoveList();
+        ByteBuffer buffer = ByteBuffer.allocate(GameCodec.ENCODED_SIZE);
+        for (int gameNumber = 0; gameNumber < 10; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 80; ply++) {
+                moves.clear();
+                game.generateMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) break;
+                game.makeMove(moves.get(random.nextInt(moves.size())), new MoveUndo());
+
+                buffer.clear();
+                GameCodec.encode(game, buffer);
+                Assertions.assertFalse(buffer.hasRemaining());
+                buffer.flip();
+                ChessGame decoded = GameCodec.decode(buffer);
+                Assertions.assertEquals(game.toFen(), decoded.toFen());
+                Assertions.assertEquals(game.positionKey(), decoded.positionKey());
+            }
+        }
+    }
+
+
+    @Test
+    public void encodesAtBufferPosition() {
+        ChessGame first = new ChessGame();
+        ChessGame second = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 b - - 3 20");
+        ByteBuffer buffer = ByteBuffer.allocate(GameCodec.ENCODED_SIZE * 2);
+        GameCodec.encode(first, buffer);
+        GameCodec.encode(second, buffer);
+        buffer.flip();
+        Assertions.assertEquals(first.toFen(), GameCodec.decode(buffer).toFen());
+        Assertions.assertEquals(second.toFen(), GameCodec.decode(buffer).toFen());
+    }
+
+
+    @Test
+    public void invalidDataRejected() {
+        byte[] valid = GameCodec.encode(new ChessGame());
+
+        byte[] wrongVersion = valid.clone();
+        wrongVersion[0] = 99;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(wrongVersion));
+
+        byte[] truncated = new byte[valid.length - 1];
+        System.arraycopy(valid, 0, truncated, 0, truncated.length);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(truncated));
+
+        byte[] badPiece = valid.clone();
+        badPiece[1] = (byte) 0xFF;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badPiece));
+
+        byte[] badEnPassant = valid.clone();
+        badEnPassant[34] = 9;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badEnPassant));
+    }
+
+
+    @Test
+    public void repetitionsSurviveStorage() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5)));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5)));
+        shuffleKnights(game);
+
+        //Saved and loaded between every shuffle, as the server does with each move when write-behind is off
+        game = GameCodec.decodeWithHistory(GameCodec.encodeWithHistory(game));
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus());
+        shuffleKnights(game);
+        game = GameCodec.decodeWithHistory(GameCodec.encodeWithHistory(game));
+        Assertions.assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.evaluateStatus());
+
+        //Games stored without a history still load, and just can't see the earlier positions
+        ChessGame withoutHistory = GameCodec.decodeWithHistory(GameCodec.encode(game));
+        Assertions.assertEquals(game.toFen(), withoutHistory.toFen());
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, withoutHistory.evaluateStatus());
+
+        byte[] stored = GameCodec.encodeWithHistory(game);
+        byte[] shortened = Arrays.copyOf(stored, stored.length - 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decodeWithHistory(shortened));
+    }
+
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6)));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6)));
+        game.makeMove(ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7)));
+        game.makeMove(ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7)));
+    }
+
+}
@@ -0,0 +1,189 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static passoffTests.TestFactory.loadBoard;
+
+public class GameStatusTests {
+
+    @Test
+    public void checkCheckmateAndStalemate() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus());
+
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 6), ChessPosition.of(3, 6)));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5)));
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 7), ChessPosition.of(4, 7)));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 4), ChessPosition.of(4, 8)));
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.evaluateStatus());
+        Assertions.assertTrue(game.evaluateStatus().isOver());
+        Assertions.assertFalse(game.evaluateStatus().isDraw());
+
+        assertStatus(ChessGame.GameStatus.CHECK, ChessGame.TeamColor.BLACK, """
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |R| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        assertStatus(ChessGame.GameStatus.STALEMATE, ChessGame.TeamColor.BLACK, """
+                | | | | | | | |k|
+                | | | | | |Q| | |
+                | | | | | | |K| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """);
+    }
+
+
+    @Test
+    public void insufficientMaterial() {
+        assertStatus(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, ChessGame.TeamColor.WHITE, """
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        assertStatus(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, ChessGame.TeamColor.WHITE, """
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |n| | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        //Both bishops on light squares
+        assertStatus(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, ChessGame.TeamColor.WHITE, """
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | |b| | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |K| |B| | |
+                """);
+        //Opposite colored bishops can still mate
+        assertStatus(ChessGame.GameStatus.NORMAL, ChessGame.TeamColor.WHITE, """
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | |b| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |K| |B| | |
+                """);
+        assertStatus(ChessGame.GameStatus.NORMAL, ChessGame.TeamColor.WHITE, """
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |n| | |
+                | | | | | | | | |
+                | | | | | | | |P|
+                | | | | |K| | | |
+                """);
+    }
+
+
+    @Test
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus());
+        //The starting position is now on the board for the third time
+        shuffleKnights(game);
+        Assertions.assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.evaluateStatus());
+        Assertions.assertTrue(game.evaluateStatus().isDraw());
+
+        //Stepping back through the history takes the repetitions with it, including when a checkpoint is restored
+        game.goToPly(4);
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus());
+        game.goToPly(8);
+        for (int i = 0; i < 3; i++) shuffleKnights(game);
+        game.goToPly(0);
+        game.goToPly(17);
+        Assertions.assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.evaluateStatus());
+        game.goToPly(20);
+        Assertions.assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.evaluateStatus());
+
+        MoveUndo undo = new MoveUndo();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5)), undo);
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus());
+        game.unmakeMove(undo);
+        Assertions.assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.evaluateStatus());
+    }
+
+
+    @Test
+    public void pawnMoveResetsRepetitions() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5)));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5)));
+        shuffleKnights(game);
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus());
+        shuffleKnights(game);
+        Assertions.assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.evaluateStatus());
+
+        //A position set up directly has no earlier positions to repeat
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus());
+    }
+
+
+    @Test
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 99 70");
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus());
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(1, 2)));
+        Assertions.assertEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, game.evaluateStatus());
+        Assertions.assertTrue(game.evaluateStatus().isDraw());
+
+        game.undoMove();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(3, 5)));
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus());
+
+        //Checkmate on the hundredth ply still wins
+        game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 99 70");
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(8, 1)));
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.evaluateStatus());
+    }
+
+
+    /**
+     * Moves both sides' kingside knights out and back, returning to the same position
+     */
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6)));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6)));
+        game.makeMove(ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7)));
+        game.makeMove(ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7)));
+    }
+
+
+    private static void assertStatus(ChessGame.GameStatus expected, ChessGame.TeamColor turn, String board) {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard(board));
+        game.setTeamTurn(turn);
+        Assertions.assertEquals(expected, game.evaluateStatus());
+        Assertions.assertEquals(expected == ChessGame.GameStatus.CHECKMATE, game.isInCheckmate(turn));
+        Assertions.assertEquals(expected == ChessGame.GameStatus.STALEMATE, game.isInStalemate(turn));
+    }
+
+}
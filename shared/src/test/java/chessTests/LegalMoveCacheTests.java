@@ -0,0 +1,68 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LegalMoveCacheTests {
+
+    @Test
+    public void countsHitsAndMisses() {
+        LegalMoveCache cache = new LegalMoveCache(8);
+        int[] moves = {PackedMove.encode(12, 28, PackedMove.NORMAL)};
+
+        Assertions.assertNull(cache.get(42, ChessGame.TeamColor.WHITE, 0xFFFF));
+        cache.put(42, ChessGame.TeamColor.WHITE, 0xFFFF, moves);
+        Assertions.assertSame(moves, cache.get(42, ChessGame.TeamColor.WHITE, 0xFFFF));
+        Assertions.assertNull(cache.get(42, ChessGame.TeamColor.BLACK, 0xFFFF),
+                "Each team's moves should be cached separately");
+        Assertions.assertNull(cache.get(42, ChessGame.TeamColor.WHITE, 0xFFFE),
+                "A different occupancy under the same key is a collision and should miss");
+
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(3, cache.getMisses());
+    }
+
+
+    @Test
+    public void clockEvictsUnreferencedEntries() {
+        LegalMoveCache cache = new LegalMoveCache(4);
+        for (long key = 0; key < 4; key++) {
+            cache.put(key, ChessGame.TeamColor.WHITE, 0, new int[0]);
+        }
+        //Touch key 0, so the hand skips it and evicts key 1 instead
+        Assertions.assertNotNull(cache.get(0, ChessGame.TeamColor.WHITE, 0));
+        cache.put(4, ChessGame.TeamColor.WHITE, 0, new int[0]);
+
+        Assertions.assertEquals(4, cache.size());
+        Assertions.assertEquals(1, cache.getEvictions());
+        Assertions.assertNotNull(cache.get(0, ChessGame.TeamColor.WHITE, 0));
+        Assertions.assertNull(cache.get(1, ChessGame.TeamColor.WHITE, 0));
+        Assertions.assertNotNull(cache.get(4, ChessGame.TeamColor.WHITE, 0));
+
+        for (long key = 5; key < 100; key++) {
+            cache.put(key, ChessGame.TeamColor.WHITE, 0, new int[0]);
+        }
+        Assertions.assertEquals(4, cache.size(), "The cache should never grow past its capacity");
+    }
+
+
+    @Test
+    public void repeatedChecksOfAPositionHitTheSharedCache() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 6), ChessPosition.of(3, 6)));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5)));
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 7), ChessPosition.of(4, 7)));
+
+        game.validMoves(ChessPosition.of(8, 4));
+        long hits = LegalMoveCache.shared().getHits();
+        Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.BLACK));
+        game.validMoves(ChessPosition.of(7, 1));
+        Assertions.assertTrue(LegalMoveCache.shared().getHits() >= hits + 2,
+                "Later checks of the same position should reuse the moves generated first");
+
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 4), ChessPosition.of(4, 8)));
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+}
@@ -0,0 +1,125 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static passoffTests.TestFactory.loadBoard;
+
+public class MakeUnmakeTests {
+
+    @Test
+    public void unmakeRestoresStartingPosition() throws InvalidMoveException {
+        assertEveryMoveUnmakes(new ChessGame());
+    }
+
+
+    @Test
+    public void unmakeRestoresCastlingAndCaptures() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """));
+        assertEveryMoveUnmakes(game);
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertEveryMoveUnmakes(game);
+    }
+
+
+    @Test
+    public void unmakeRestoresEnPassantAndPromotion() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | |p| | | |P| |
+                | | | | | | | | |
+                | |P| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        game.makeMove(new ChessMove(new ChessPosition(7, 3), new ChessPosition(5, 3)));
+
+        Collection<ChessMove> pawnMoves = game.validMoves(new ChessPosition(5, 2));
+        Assertions.assertTrue(pawnMoves.contains(new ChessMove(new ChessPosition(5, 2), new ChessPosition(6, 3))),
+                "En passant should be available before any move is tried");
+        assertEveryMoveUnmakes(game);
+    }
+
+
+    @Test
+    public void unmakeReturnsCapturedPiece() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | | | | |P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """));
+
+        MoveUndo undo = new MoveUndo();
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4)), undo);
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN),
+                undo.getCapturedPiece());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+
+        game.unmakeMove(undo);
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN),
+                game.getBoard().getPiece(new ChessPosition(5, 4)));
+    }
+
+
+    private void assertEveryMoveUnmakes(ChessGame game) throws InvalidMoveException {
+        ChessBoard before = new ChessBoard(game.getBoard());
+        String description = game.toString();
+        Map<ChessPosition, Collection<ChessMove>> movesBefore = allValidMoves(game);
+
+        MoveUndo undo = new MoveUndo();
+        for (Collection<ChessMove> moves : movesBefore.values()) {
+            for (ChessMove move : moves) {
+                game.makeMove(move, undo);
+                game.unmakeMove(undo);
+
+                Assertions.assertEquals(before, game.getBoard(), "Board not restored after " + move);
+                Assertions.assertEquals(description, game.toString(), "Game not restored after " + move);
+            }
+        }
+
+        Assertions.assertEquals(movesBefore, allValidMoves(game), "Valid moves changed after making and unmaking");
+    }
+
+
+    private Map<ChessPosition, Collection<ChessMove>> allValidMoves(ChessGame game) {
+        Map<ChessPosition, Collection<ChessMove>> moves = new HashMap<>();
+        for (int i = 1; i <= 8; i++) {
+            for (int j = 1; j <= 8; j++) {
+                ChessPosition position = new ChessPosition(i, j);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    moves.put(position, game.validMoves(position));
+                }
+            }
+        }
+        return moves;
+    }
+
+}
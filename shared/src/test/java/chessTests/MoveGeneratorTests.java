@@ -0,0 +1,116 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static passoffTests.TestFactory.loadBoard;
+
+/**
+ * Compares the legal moves from {@link ChessGame#validMoves(ChessPosition)} against a brute force check, which
+ * plays every pseudo-legal move on a copy of the board and looks for any enemy move that captures the king.
+ */
+public class MoveGeneratorTests {
+
+    @Test
+    public void randomGamesMatchBruteForce() throws InvalidMoveException {
+        Random random = new Random(240);
+        for (int gameNumber = 0; gameNumber < 60; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 80; ply++) {
+                List<ChessMove> moves = assertMatchesBruteForce(game);
+                if (moves.isEmpty()) break;
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+
+    @Test
+    public void pinsAndChecksMatchBruteForce() {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                | | | |r| | | |k|
+                | | | | | | | | |
+                | |b| | | | | | |
+                | | | | | | | | |
+                |q| |N|R| |P|K| |
+                | | | | | | | | |
+                | | | |B| |n| | |
+                | | | | | | | | |
+                """));
+        assertMatchesBruteForce(game);
+
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |r| | | |
+                | | | | | | | | |
+                | | |b|P|R|P| | |
+                | | | |Q|K|N| | |
+                """));
+        assertMatchesBruteForce(game);
+    }
+
+
+    private List<ChessMove> assertMatchesBruteForce(ChessGame game) {
+        List<ChessMove> all = new ArrayList<>();
+        ChessBoard board = game.getBoard();
+        for (int i = 1; i <= 8; i++) {
+            for (int j = 1; j <= 8; j++) {
+                ChessPosition position = new ChessPosition(i, j);
+                ChessPiece piece = board.getPiece(position);
+                if (piece == null || piece.getTeamColor() != game.getTeamTurn()) continue;
+
+                Set<ChessMove> generated = new HashSet<>(game.validMoves(position));
+                all.addAll(generated);
+                generated.removeIf(move -> isCastleOrEnPassant(board, move));
+
+                Set<ChessMove> expected = new HashSet<>();
+                for (ChessMove move : piece.pieceMoves(board, position)) {
+                    if (!leavesKingInCheck(board, move)) expected.add(move);
+                }
+                Assertions.assertEquals(expected, generated,
+                        "Wrong moves for " + position + " in " + game);
+            }
+        }
+        all.sort(Comparator.comparing(ChessMove::toString));
+        return all;
+    }
+
+
+    private boolean isCastleOrEnPassant(ChessBoard board, ChessMove move) {
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        int columns = Math.abs(move.getStartPosition().getColumn() - move.getEndPosition().getColumn());
+        return (piece.getPieceType() == ChessPiece.PieceType.KING && columns == 2) ||
+                (piece.getPieceType() == ChessPiece.PieceType.PAWN && columns == 1 &&
+                        board.getPiece(move.getEndPosition()) == null);
+    }
+
+
+    private boolean leavesKingInCheck(ChessBoard board, ChessMove move) {
+        ChessBoard copy = new ChessBoard(board);
+        ChessPiece piece = copy.getPiece(move.getStartPosition());
+        copy.addPiece(move.getStartPosition(), null);
+        copy.addPiece(move.getEndPosition(), move.getPromotionPiece() == null ? piece :
+                new ChessPiece(piece.getTeamColor(), move.getPromotionPiece()));
+
+        for (int i = 1; i <= 8; i++) {
+            for (int j = 1; j <= 8; j++) {
+                ChessPosition position = new ChessPosition(i, j);
+                ChessPiece enemy = copy.getPiece(position);
+                if (enemy == null || enemy.getTeamColor() == piece.getTeamColor()) continue;
+                for (ChessMove reply : enemy.pieceMoves(copy, position)) {
+                    ChessPiece captured = copy.getPiece(reply.getEndPosition());
+                    if (captured != null && captured.getPieceType() == ChessPiece.PieceType.KING) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
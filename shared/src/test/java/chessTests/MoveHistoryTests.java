@@ -0,0 +1,149 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MoveHistoryTests {
+
+    private static final ChessMove E4 = ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5));
+
+    private static final ChessMove E5 = ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5));
+
+    private static final ChessMove NF3 = ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6));
+
+    private static final ChessMove D4 = ChessMove.of(ChessPosition.of(2, 4), ChessPosition.of(4, 4));
+
+
+    /**
+     * Plays a random game through {@link ChessGame#makeMove(ChessMove)}, returning the FEN before each ply and after
+     * the last
+     */
+    private static List<String> playRandomGame(ChessGame game, Random random, int plies) throws InvalidMoveException {
+        List<String> fens = new ArrayList<>();
+        fens.add(game.toFen());
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < plies; ply++) {
+            moves.clear();
+            game.generateMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty()) break;
+            game.makeMove(PackedMove.toChessMove(moves.get(random.nextInt(moves.size()))));
+            fens.add(game.toFen());
+        }
+        return fens;
+    }
+
+
+    @Test
+    public void goToPlyMatchesPlayedPositions() throws InvalidMoveException {
+        Random random = new Random(18);
+        for (int gameNumber = 0; gameNumber < 5; gameNumber++) {
+            ChessGame game = new ChessGame();
+            List<String> fens = playRandomGame(game, random, 120);
+            int size = fens.size() - 1;
+            Assertions.assertEquals(size, game.getPly());
+            Assertions.assertEquals(size, game.getMoveHistory().size());
+
+            //Jumps of every length, both ways, across and between checkpoints
+            for (int i = 0; i < 60; i++) {
+                int target = random.nextInt(size + 1);
+                game.goToPly(target);
+                Assertions.assertEquals(target, game.getPly());
+                Assertions.assertEquals(fens.get(target), game.toFen(), "Wrong position at ply " + target);
+            }
+            game.goToPly(size);
+            Assertions.assertEquals(fens.get(size), game.toFen());
+            Assertions.assertEquals(size, game.getMoveHistory().size());
+        }
+    }
+
+
+    @Test
+    public void undoMoveTruncates() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        String start = game.toFen();
+        game.makeMove(E4);
+        String afterE4 = game.toFen();
+        game.makeMove(E5);
+
+        Assertions.assertEquals(E5, game.undoMove());
+        Assertions.assertEquals(afterE4, game.toFen());
+        Assertions.assertEquals(List.of(E4), game.getMoveHistory());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> game.goToPly(2));
+
+        Assertions.assertEquals(E4, game.undoMove());
+        Assertions.assertEquals(start, game.toFen());
+        Assertions.assertNull(game.undoMove());
+    }
+
+
+    @Test
+    public void moveAfterSteppingBackReplacesLaterMoves() throws InvalidMoveException {
+        Random random = new Random(40);
+        ChessGame game = new ChessGame();
+        game.makeMove(E4);
+        game.makeMove(E5);
+        List<String> fens = playRandomGame(game, random, 40);
+        int size = game.getPly();
+
+        game.goToPly(1);
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 4), ChessPosition.of(5, 4)));
+        Assertions.assertEquals(2, game.getPly());
+        Assertions.assertEquals(2, game.getMoveHistory().size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> game.goToPly(3));
+
+        //The new line gets its own checkpoints rather than reusing the discarded line's
+        List<String> newFens = playRandomGame(game, random, size);
+        int newSize = game.getPly();
+        for (int ply = newSize; ply >= 2; ply -= 7) {
+            game.goToPly(ply);
+            Assertions.assertEquals(newFens.get(ply - 2), game.toFen());
+        }
+        Assertions.assertNotEquals(fens.get(0), newFens.get(0));
+    }
+
+
+    @Test
+    public void settingUpPositionClearsHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(E4);
+        game.makeMove(E5);
+        game.setBoard(game.getBoard());
+        Assertions.assertEquals(0, game.getPly());
+        Assertions.assertTrue(game.getMoveHistory().isEmpty());
+        Assertions.assertNull(game.undoMove());
+
+        game.makeMove(NF3);
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertTrue(game.getMoveHistory().isEmpty());
+    }
+
+
+    @Test
+    public void uncheckedMovesAreNotRecorded() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(E4);
+        game.makeMove(E5);
+        MoveUndo undo = new MoveUndo();
+        game.makeMove(D4, undo);
+        Assertions.assertEquals(2, game.getPly());
+        game.unmakeMove(undo);
+        Assertions.assertEquals(List.of(E4, E5), game.getMoveHistory());
+    }
+
+
+    @Test
+    public void invalidMoveLeavesHistoryUnchanged() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(E4);
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(D4));
+        Assertions.assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(4, 5))));
+        Assertions.assertEquals(List.of(E4), game.getMoveHistory());
+    }
+
+}
@@ -0,0 +1,89 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MoveSequenceTests {
+
+    @Test
+    public void randomGamesMatchMakingEachMove() throws InvalidMoveException {
+        Random random = new Random(20);
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 10; gameNumber++) {
+            ChessGame played = new ChessGame();
+            List<ChessMove> line = new ArrayList<>();
+            for (int ply = 0; ply < 100; ply++) {
+                moves.clear();
+                played.generateMoves(played.getTeamTurn(), moves);
+                if (moves.isEmpty()) break;
+                ChessMove move = PackedMove.toChessMove(moves.get(random.nextInt(moves.size())));
+                played.makeMove(move);
+                line.add(move);
+            }
+
+            ChessGame applied = new ChessGame();
+            Assertions.assertEquals(-1, applied.validateLine(line));
+            Assertions.assertEquals(new ChessGame().toFen(), applied.toFen());
+
+            applied.applyMoves(line);
+            Assertions.assertEquals(played.toFen(), applied.toFen());
+            Assertions.assertEquals(line, applied.getMoveHistory());
+        }
+    }
+
+
+    @Test
+    public void stopsAtFirstInvalidMove() throws InvalidMoveException {
+        List<ChessMove> line = List.of(
+                ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5)),
+                ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5)),
+                ChessMove.of(ChessPosition.of(1, 6), ChessPosition.of(4, 3)),
+                //The king can only move one square
+                ChessMove.of(ChessPosition.of(8, 5), ChessPosition.of(6, 5)),
+                ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(6, 1)));
+
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(-1, game.validateLine(line.subList(0, 3)));
+        Assertions.assertEquals(3, game.validateLine(line));
+
+        InvalidMoveException e = Assertions.assertThrows(InvalidMoveException.class, () -> game.applyMoves(line));
+        Assertions.assertEquals(3, e.getMoveIndex());
+        Assertions.assertEquals(line.subList(0, 3), game.getMoveHistory());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+    }
+
+
+    @Test
+    public void checksAndPinsLimitThePieceMoved() {
+        //The bishop on d2 is pinned to the king by the rook on d8, and the king can't castle through f1
+        ChessGame game = ChessGame.fromFen("3rkr2/8/8/8/8/8/3B4/3K3R w - - 0 1");
+        Assertions.assertEquals(0, game.validateLine(List.of(ChessMove.of(ChessPosition.of(2, 4),
+                ChessPosition.of(3, 5)))));
+        Assertions.assertEquals(-1, game.validateLine(List.of(ChessMove.of(ChessPosition.of(1, 4),
+                ChessPosition.of(1, 3)))));
+
+        game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+        Assertions.assertEquals(-1, game.validateLine(List.of(ChessMove.of(ChessPosition.of(1, 5),
+                ChessPosition.of(1, 7)))));
+        game = ChessGame.fromFen("4kr2/8/8/8/8/8/8/4K2R w K - 0 1");
+        Assertions.assertEquals(0, game.validateLine(List.of(ChessMove.of(ChessPosition.of(1, 5),
+                ChessPosition.of(1, 7)))));
+
+        //Wrong side to move, empty square, missing promotion piece
+        game = ChessGame.fromFen("4k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        Assertions.assertEquals(0, game.validateLine(List.of(ChessMove.of(ChessPosition.of(8, 5),
+                ChessPosition.of(8, 4)))));
+        Assertions.assertEquals(0, game.validateLine(List.of(ChessMove.of(ChessPosition.of(3, 3),
+                ChessPosition.of(4, 3)))));
+        Assertions.assertEquals(0, game.validateLine(List.of(ChessMove.of(ChessPosition.of(7, 1),
+                ChessPosition.of(8, 1)))));
+        Assertions.assertEquals(-1, game.validateLine(List.of(ChessMove.of(ChessPosition.of(7, 1),
+                ChessPosition.of(8, 1), ChessPiece.PieceType.KNIGHT))));
+    }
+
+}
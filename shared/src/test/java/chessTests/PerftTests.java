@@ -0,0 +1,92 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+/**
+ * Node counts for standard test positions, from the Chess Programming Wiki's perft results page
+ */
+public class PerftTests {
+
+    @Test
+    public void startingPosition() {
+        assertCounts(Perft.STARTING_POSITION, 20, 400, 8_902, 197_281);
+    }
+
+
+    @Test
+    public void kiwipete() {
+        assertCounts("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 48, 2_039, 97_862);
+    }
+
+
+    @Test
+    public void position3() {
+        assertCounts("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2_812, 43_238, 674_624);
+    }
+
+
+    @Test
+    public void position4() {
+        assertCounts("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9_467, 422_333);
+    }
+
+
+    @Test
+    public void position5() {
+        assertCounts("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 44, 1_486, 62_379);
+    }
+
+
+    @Test
+    public void position6() {
+        assertCounts("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                46, 2_079, 89_890);
+    }
+
+
+    @Test
+    public void enPassantFromFen() {
+        assertCounts("8/8/8/8/k2Pp3/8/8/3K4 b - d3 0 1", 7);
+        assertCounts("8/8/8/8/k2Pp3/8/8/3K4 b - - 0 1", 6);
+        //Taking en passant would take both pawns off the rank between the queen and king
+        assertCounts("8/8/8/8/k2Pp2Q/8/8/3K4 b - d3 0 1", 6);
+    }
+
+
+    @Test
+    public void capturedRookCantCastleLater() throws InvalidMoveException {
+        ChessGame game = Perft.fromFen("4k2r/8/8/8/3B4/7r/8/4K3 w k - 0 1");
+        game.makeMove(ChessMove.of(ChessPosition.of(4, 4), ChessPosition.of(8, 8)));
+        game.makeMove(ChessMove.of(ChessPosition.of(3, 8), ChessPosition.of(8, 8)));
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 5), ChessPosition.of(1, 4)));
+
+        Assertions.assertFalse(game.validMoves(ChessPosition.of(8, 5))
+                        .contains(ChessMove.of(ChessPosition.of(8, 5), ChessPosition.of(8, 7))),
+                "Capturing the rook on its starting square should remove that castling option for good");
+    }
+
+
+    @Test
+    public void divideSumsToCount() {
+        ChessGame game = Perft.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        String before = game.toString();
+        Map<ChessMove, Long> divide = new Perft(game).divide(2);
+
+        Assertions.assertEquals(48, divide.size());
+        Assertions.assertEquals(2_039, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(before, game.toString(), "Counting should leave the game as it started");
+    }
+
+
+    private static void assertCounts(String fen, long... expected) {
+        Perft perft = new Perft(Perft.fromFen(fen));
+        for (int depth = 1; depth <= expected.length; depth++) {
+            Assertions.assertEquals(expected[depth - 1], perft.count(depth), "Depth " + depth + " of " + fen);
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class PositionAnalyzerTests {
+
+    @Test
+    public void parallelPerftMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ChessGame kiwipete =
+                    Perft.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+            String before = kiwipete.toString();
+            Assertions.assertEquals(97_862, Perft.countParallel(kiwipete, 3, 1, pool));
+            Assertions.assertEquals(97_862, Perft.countParallel(kiwipete, 3, 2, pool));
+            Assertions.assertEquals(before, kiwipete.toString(), "Counting should leave the game as it started");
+
+            Assertions.assertEquals(197_281, Perft.countParallel(new ChessGame(), 4, 1, pool));
+            Assertions.assertEquals(1, Perft.countParallel(new ChessGame(), 0, 1, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    @Test
+    public void analyzeMatchesSequentialChecks() throws InvalidMoveException {
+        List<ChessGame> games = new ArrayList<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 100; i++) {
+            ChessGame game = new ChessGame();
+            MoveList moves = new MoveList();
+            for (int ply = 0; ply < random.nextInt(60); ply++) {
+                moves.clear();
+                game.generateMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) break;
+                game.makeMove(PackedMove.toChessMove(moves.get(random.nextInt(moves.size()))));
+            }
+            games.add(game);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<PositionAnalyzer.Analysis> results = new PositionAnalyzer(pool, 2).analyze(games);
+            Assertions.assertEquals(games.size(), results.size());
+            for (int i = 0; i < games.size(); i++) {
+                ChessGame game = games.get(i);
+                PositionAnalyzer.Analysis analysis = results.get(i);
+                Assertions.assertEquals(game.positionKey(), analysis.positionKey());
+                Assertions.assertEquals(game.evaluateStatus(), analysis.status());
+                Assertions.assertEquals(new Perft(new ChessGame(game)).count(1), analysis.legalMoves());
+                Assertions.assertEquals(new Perft(new ChessGame(game)).count(2), analysis.nodes());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    @Test
+    public void copiedGamesAreIndependent() throws InvalidMoveException {
+        ChessGame game = Perft.fromFen("r3k2r/8/8/8/4p3/8/3P4/R3K2R w KQkq - 0 1");
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 4), ChessPosition.of(4, 4)));
+        ChessGame copy = new ChessGame(game);
+
+        Assertions.assertEquals(game, copy);
+        Assertions.assertEquals(game.positionKey(), copy.positionKey(), "Castling and en passant should be copied");
+
+        copy.makeMove(ChessMove.of(ChessPosition.of(4, 5), ChessPosition.of(3, 4)));
+        Assertions.assertNotEquals(game.getBoard(), copy.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+    }
+
+}
@@ -0,0 +1,103 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ZobristTests {
+
+    @Test
+    public void incrementalKeyMatchesRebuiltBoard() throws InvalidMoveException {
+        Random random = new Random(91);
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 100; ply++) {
+                moves.clear();
+                game.generateMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) break;
+                game.makeMove(moves.get(random.nextInt(moves.size())), new MoveUndo());
+
+                ChessBoard rebuilt = new ChessBoard();
+                for (int square = 0; square < 64; square++) {
+                    rebuilt.addPiece(square, game.getBoard().getPiece(square));
+                }
+                Assertions.assertEquals(rebuilt.getKey(), game.getBoard().getKey(),
+                        "Incrementally updated key should match a board built from scratch");
+                Assertions.assertEquals(rebuilt.hashCode(), game.getBoard().hashCode());
+            }
+        }
+    }
+
+
+    @Test
+    public void unmakeRestoresPositionKey() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        List<Long> keys = new ArrayList<>();
+        List<MoveUndo> undos = new ArrayList<>();
+        Random random = new Random(7);
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < 60; ply++) {
+            keys.add(game.positionKey());
+            moves.clear();
+            game.generateMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty()) break;
+            MoveUndo undo = new MoveUndo();
+            game.makeMove(moves.get(random.nextInt(moves.size())), undo);
+            undos.add(undo);
+        }
+        for (int i = undos.size() - 1; i >= 0; i--) {
+            game.unmakeMove(undos.get(i));
+            Assertions.assertEquals(keys.get(i), game.positionKey());
+        }
+    }
+
+
+    @Test
+    public void keyCoversTurnCastlingAndEnPassant() throws InvalidMoveException {
+        ChessGame start = new ChessGame();
+
+        ChessGame transposed = play("g1f3", "g8f6", "f3g1", "f6g8");
+        Assertions.assertEquals(start.positionKey(), transposed.positionKey(),
+                "Knights moving out and back should return to the starting key");
+        Assertions.assertEquals(start, transposed);
+        Assertions.assertEquals(start.hashCode(), transposed.hashCode());
+
+        ChessGame blackToMove = new ChessGame();
+        blackToMove.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(start.positionKey(), blackToMove.positionKey());
+
+        ChessGame rookMoved = play("g1f3", "g8f6", "h1g1", "f6g8", "g1h1", "b8c6", "f3g1", "c6b8");
+        Assertions.assertEquals(start.getBoard(), rookMoved.getBoard());
+        Assertions.assertNotEquals(start.positionKey(), rookMoved.positionKey(),
+                "Losing a castling option should change the key");
+
+        //A double pawn move only changes the key when it can be taken en passant
+        ChessGame capturable = play("e2e3", "g8f6", "e3e4", "f6g8", "e4e5", "d7d5");
+        ChessGame singleSteps = play("e2e4", "d7d6", "e4e5", "g8f6", "g1f3", "d6d5", "f3g1", "f6g8");
+        Assertions.assertEquals(capturable.getBoard(), singleSteps.getBoard());
+        Assertions.assertNotEquals(capturable.positionKey(), singleSteps.positionKey());
+
+        ChessGame uncapturable = play("e2e4", "a7a5");
+        Assertions.assertEquals(uncapturable.positionKey(), play("e2e3", "a7a6", "e3e4", "a6a5").positionKey());
+    }
+
+
+    private static ChessPosition square(String name) {
+        return ChessPosition.of(name.charAt(1) - '0', name.charAt(0) - 'a' + 1);
+    }
+
+
+    private static ChessGame play(String... moves) throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (String move : moves) {
+            game.makeMove(ChessMove.of(square(move.substring(0, 2)), square(move.substring(2, 4))));
+        }
+        return game;
+    }
+
+}
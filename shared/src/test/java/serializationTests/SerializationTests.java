@@ -0,0 +1,209 @@
+package serializationTests;
+
+import chess.*;
+import com.google.gson.*;
+import model.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import serialization.Serialization;
+import webSocketMessages.serverMessages.ServerMessage;
+import webSocketMessages.userCommands.UserGameCommand;
+
+import java.util.List;
+
+public class SerializationTests {
+
+    private final Gson gson = Serialization.getGson();
+
+    private final Gson reflective = new Gson();
+
+
+    @Test
+    public void movesKeepReflectiveShape() {
+        ChessMove[] moves = {
+                ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5)),
+                ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 2), ChessPiece.PieceType.KNIGHT),
+        };
+        for (ChessMove move : moves) {
+            String json = gson.toJson(move);
+            Assertions.assertEquals(reflective.toJson(move), json);
+            Assertions.assertSame(move, gson.fromJson(json, ChessMove.class));
+            Assertions.assertSame(move, gson.fromJson(reflective.toJson(move), ChessMove.class));
+        }
+
+        ChessPosition position = ChessPosition.of(3, 6);
+        Assertions.assertEquals(reflective.toJson(position), gson.toJson(position));
+        Assertions.assertSame(position, gson.fromJson("{\"row\":3,\"col\":6}", ChessPosition.class));
+    }
+
+
+    @Test
+    public void gameKeepsFullState() {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 4 23");
+        game.setActive(false);
+
+        String json = gson.toJson(game);
+        Assertions.assertTrue(json.startsWith("{\"fen\":\"r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 4 23\",\"active\":false"),
+                json);
+
+        ChessGame read = gson.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game.toFen(), read.toFen());
+        Assertions.assertEquals(game.positionKey(), read.positionKey());
+        Assertions.assertFalse(read.isActive());
+        //The en passant capture only exists if the rules were set up for the position
+        Assertions.assertTrue(read.validMoves(ChessPosition.of(5, 5))
+                .contains(ChessMove.of(ChessPosition.of(5, 5), ChessPosition.of(6, 4))));
+    }
+
+
+    @Test
+    public void readsReflectiveGames() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5)));
+
+        ChessGame read = gson.fromJson(reflective.toJson(game), ChessGame.class);
+        Assertions.assertEquals(game, read);
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, read.getTeamTurn());
+        Assertions.assertTrue(read.isActive());
+        //Castling options come from where the kings and rooks stand
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", read.toFen());
+    }
+
+
+    @Test
+    public void readsBaselineGames() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5)));
+
+        //How Gson's reflection wrote games when ChessBoard held a ChessPiece[8][8], which stored games still use
+        StringBuilder json = new StringBuilder("{\"board\":{\"board\":[");
+        for (int row = 1; row <= 8; row++) {
+            json.append((row == 1) ? "[" : ",[");
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(ChessPosition.of(row, col));
+                if (col > 1) json.append(',');
+                json.append((piece == null) ? "null" : "{\"teamColor\":\"" + piece.getTeamColor() +
+                        "\",\"pieceType\":\"" + piece.getPieceType() + "\"}");
+            }
+            json.append(']');
+        }
+        json.append("]},\"teamTurn\":\"BLACK\"}");
+
+        ChessGame read = gson.fromJson(json.toString(), ChessGame.class);
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", read.toFen());
+        Assertions.assertTrue(read.isActive());
+    }
+
+
+    @Test
+    public void writesBaselineFields() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5)));
+
+        //A client that only knows the original shape sees the board and turn where it always did
+        JsonObject json = JsonParser.parseString(gson.toJson(game)).getAsJsonObject();
+        Assertions.assertEquals("BLACK", json.get("teamTurn").getAsString());
+        JsonArray rows = json.getAsJsonObject("board").getAsJsonArray("board");
+        Assertions.assertEquals(8, rows.size());
+        Assertions.assertEquals("KING", rows.get(0).getAsJsonArray().get(4).getAsJsonObject()
+                .get("pieceType").getAsString());
+        Assertions.assertEquals("PAWN", rows.get(3).getAsJsonArray().get(4).getAsJsonObject()
+                .get("pieceType").getAsString());
+        Assertions.assertTrue(rows.get(1).getAsJsonArray().get(4).isJsonNull());
+
+        json.remove("fen");
+        Assertions.assertEquals(game.getBoard(), gson.fromJson(json, ChessGame.class).getBoard());
+    }
+
+
+    @Test
+    public void commandsRoundTrip() {
+        ChessMove move = ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5));
+        UserGameCommand[] commands = {
+                new UserGameCommand("token", 3, ChessGame.TeamColor.BLACK),
+                new UserGameCommand(UserGameCommand.CommandType.JOIN_OBSERVER, "token", 3)
+                        .withCapabilities(UserGameCommand.Capability.BINARY_GAME),
+                new UserGameCommand("token", 3, move),
+                new UserGameCommand(UserGameCommand.CommandType.RESIGN, "token", 3),
+        };
+        for (UserGameCommand command : commands) {
+            for (String json : List.of(gson.toJson(command), reflective.toJson(command))) {
+                UserGameCommand read = gson.fromJson(json, UserGameCommand.class);
+                Assertions.assertEquals(command.getCommandType(), read.getCommandType());
+                Assertions.assertEquals(command.getAuthString(), read.getAuthString());
+                Assertions.assertEquals(command.getGameID(), read.getGameID());
+                Assertions.assertEquals(command.getPlayerColor(), read.getPlayerColor());
+                Assertions.assertEquals(command.getMove(), read.getMove());
+                Assertions.assertEquals(command.getCapabilities(), read.getCapabilities());
+            }
+        }
+
+        UserGameCommand unknownCapability = gson.fromJson(
+                "{\"commandType\":\"JOIN_OBSERVER\",\"authToken\":\"t\",\"gameID\":1,\"capabilities\":[\"TELEPATHY\"]}",
+                UserGameCommand.class);
+        Assertions.assertTrue(unknownCapability.getCapabilities().isEmpty());
+    }
+
+
+    @Test
+    public void serverMessagesRoundTrip() {
+        ServerMessage notification = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, "hi");
+        ServerMessage error = new ServerMessage(ServerMessage.ServerMessageType.ERROR, "Error: no");
+        Assertions.assertEquals(reflective.toJson(notification), gson.toJson(notification));
+        Assertions.assertEquals(reflective.toJson(error), gson.toJson(error));
+        Assertions.assertEquals("hi", gson.fromJson(gson.toJson(notification), ServerMessage.class).getMessage());
+        Assertions.assertEquals("Error: no",
+                gson.fromJson(gson.toJson(error), ServerMessage.class).getErrorMessage());
+
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R b K - 7 41");
+        ServerMessage read = gson.fromJson(gson.toJson(new ServerMessage(game)), ServerMessage.class);
+        Assertions.assertEquals(ServerMessage.ServerMessageType.LOAD_GAME, read.getServerMessageType());
+        Assertions.assertEquals(game.toFen(), read.getGame().toFen());
+    }
+
+
+    @Test
+    public void modelRecordsRoundTrip() {
+        AuthData auth = new AuthData("token", "user");
+        UserData user = new UserData("user", "pass", null);
+        JoinGameRequest join = new JoinGameRequest(ChessGame.TeamColor.WHITE, 4);
+        GameData created = new GameData(7, null, null, null, null);
+        for (Object record : List.of(auth, user, join, created)) {
+            String json = gson.toJson(record);
+            Assertions.assertEquals(reflective.toJson(record), json);
+            Assertions.assertEquals(record, gson.fromJson(json, record.getClass()));
+        }
+
+        GameData game = new GameData(1, "white", null, "name", new ChessGame());
+        ListGamesResponse list = new ListGamesResponse(List.of(game, created));
+        ListGamesResponse read = gson.fromJson(gson.toJson(list), ListGamesResponse.class);
+        Assertions.assertEquals(List.copyOf(list.games()), List.copyOf(read.games()));
+    }
+
+
+    @Test
+    public void lenientWhereReflectionWasLenient() {
+        JoinGameRequest join = gson.fromJson("{\"playerColor\":\"GREEN\"}", JoinGameRequest.class);
+        Assertions.assertNull(join.playerColor());
+        Assertions.assertEquals(0, join.gameID());
+        Assertions.assertEquals("name", gson.fromJson("{\"gameName\":\"name\"}", GameData.class).gameName());
+    }
+
+
+    @Test
+    public void invalidDataRejected() {
+        String[] invalid = {
+                "{\"authToken\":\"t\",\"gameID\":1}",
+                "{\"commandType\":\"MAKE_MOVE\",\"move\":{\"startPosition\":{\"row\":9,\"col\":1}," +
+                        "\"endPosition\":{\"row\":1,\"col\":1}}}",
+                "{\"commandType\":\"MAKE_MOVE\",\"move\":{\"startPosition\":{\"row\":2,\"col\":1}}}",
+                "{\"commandType\":\"MAKE_MOVE\",\"gameID\":\"one\"}",
+        };
+        for (String json : invalid) {
+            Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson(json, UserGameCommand.class), json);
+        }
+        Assertions.assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"fen\":\"not a position\"}", ChessGame.class));
+    }
+
+}